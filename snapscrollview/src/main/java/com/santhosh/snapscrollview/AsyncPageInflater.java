@@ -0,0 +1,250 @@
+package com.santhosh.snapscrollview;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Inflates page layouts on a shared background thread, one page at a time. The next page
+ * is only picked when the previous one arrived, so the page closest to the current page
+ * always goes first, even when the user scrolled while pages were being inflated.
+ * <p>
+ * The background thread inflates without the factories of the activity's inflater, e.g.
+ * the one of AppCompat, as those are not thread safe. The thread has no Looper, so views
+ * that need one, e.g. because they create a Handler or take the Choreographer in their
+ * constructor, fail there and their layout is inflated on the main thread instead, with
+ * the activity's inflater.
+ */
+final class AsyncPageInflater {
+
+    interface Callback {
+        /**
+         * @return the page inflation is prioritised around.
+         */
+        int getCurrentPage();
+
+        void onPageInflated(int position, View page);
+    }
+
+    private static InflateThread sWorker;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final LayoutInflater mInflater;
+    private final LayoutInflater mBackgroundInflater;
+    private final ViewGroup mParent;
+    private final Callback mCallback;
+
+    private int[] mLayouts = new int[0];
+    private boolean[] mPending = new boolean[0];
+    private int mPendingCount;
+    private int mGeneration;
+    private boolean mRunning;
+    private int mRunningPosition;
+    private Runnable mInflateTask;
+
+    AsyncPageInflater(ViewGroup parent, Callback callback) {
+        mInflater = LayoutInflater.from(parent.getContext()).cloneInContext(parent.getContext());
+        mBackgroundInflater = new BasicInflater(parent.getContext());
+        mParent = parent;
+        mCallback = callback;
+    }
+
+    private static synchronized InflateThread getWorker() {
+        if (sWorker == null) {
+            sWorker = new InflateThread();
+            sWorker.start();
+        }
+        return sWorker;
+    }
+
+    /**
+     * Drops every pending page and starts inflating the given layouts, position i being
+     * inflated from layouts[i].
+     */
+    void submit(int[] layouts) {
+        cancel();
+        mLayouts = layouts.clone();
+        mPending = new boolean[layouts.length];
+        for (int i = 0; i < layouts.length; i++) {
+            mPending[i] = true;
+        }
+        mPendingCount = layouts.length;
+        next();
+    }
+
+    /**
+     * Drops every pending page. A page being inflated right now is discarded on arrival.
+     */
+    void cancel() {
+        mGeneration++;
+        mPendingCount = 0;
+        mRunning = false;
+    }
+
+    /**
+     * Pauses inflation and drops the queued work, so neither thread keeps the parent alive
+     * while it is detached. A page being inflated right now is inflated again on
+     * {@link #start()}.
+     */
+    void stop() {
+        if (mRunning) {
+            mPending[mRunningPosition] = true;
+            mPendingCount++;
+            mRunning = false;
+        }
+        mGeneration++;
+        if (mInflateTask != null) {
+            getWorker().remove(mInflateTask);
+            mInflateTask = null;
+        }
+        mMainHandler.removeCallbacksAndMessages(null);
+    }
+
+    /**
+     * Resumes inflating the pages left by {@link #stop()}.
+     */
+    void start() {
+        next();
+    }
+
+    int getPendingCount() {
+        return mPendingCount + (mRunning ? 1 : 0);
+    }
+
+    private void next() {
+        if (mRunning || mPendingCount == 0) {
+            return;
+        }
+        final int position = pickNext();
+        final int layout = mLayouts[position];
+        final int generation = mGeneration;
+        mPending[position] = false;
+        mPendingCount--;
+        mRunning = true;
+        mRunningPosition = position;
+        mInflateTask = new Runnable() {
+            @Override
+            public void run() {
+                View page;
+                try {
+                    page = mBackgroundInflater.inflate(layout, mParent, false);
+                } catch (RuntimeException e) {
+                    // retried on the main thread
+                    page = null;
+                }
+                final View result = page;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onInflated(generation, position, layout, result);
+                    }
+                });
+            }
+        };
+        getWorker().enqueue(mInflateTask);
+    }
+
+    private void onInflated(int generation, int position, int layout, View page) {
+        if (generation != mGeneration) {
+            return;
+        }
+        mRunning = false;
+        if (page == null) {
+            page = mInflater.inflate(layout, mParent, false);
+        }
+        mCallback.onPageInflated(position, page);
+        next();
+    }
+
+    /**
+     * @return the pending position closest to the current page, the later one on a tie.
+     */
+    private int pickNext() {
+        int current = mCallback.getCurrentPage();
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < mPending.length; i++) {
+            if (mPending[i]) {
+                int distance = Math.abs(i - current);
+                if (distance <= bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Runs inflation tasks one after the other. Unlike a HandlerThread it has no Looper, so
+     * views that must be created on a Looper thread fail instead of binding to this one.
+     */
+    private static final class InflateThread extends Thread {
+
+        private final LinkedBlockingQueue<Runnable> mQueue = new LinkedBlockingQueue<>();
+
+        InflateThread() {
+            super("SnapPageInflater");
+        }
+
+        @Override
+        public void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            while (true) {
+                try {
+                    mQueue.take().run();
+                } catch (InterruptedException e) {
+                    // keep serving the queue
+                }
+            }
+        }
+
+        void enqueue(Runnable task) {
+            mQueue.add(task);
+        }
+
+        void remove(Runnable task) {
+            mQueue.remove(task);
+        }
+    }
+
+    /**
+     * Inflater without any factory, resolving framework views the way the phone layout
+     * inflater does.
+     */
+    private static final class BasicInflater extends LayoutInflater {
+
+        private static final String[] CLASS_PREFIXES = {"android.widget.", "android.webkit.", "android.app."};
+
+        BasicInflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BasicInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : CLASS_PREFIXES) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException e) {
+                    // try the next prefix
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+}
@@ -0,0 +1,2294 @@
+package com.santhosh.snapscrollview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.database.DataSetObserver;
+import android.graphics.Canvas;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.v4.view.NestedScrollingChild;
+import android.support.v4.view.NestedScrollingChildHelper;
+import android.support.v4.view.NestedScrollingParent;
+import android.support.v4.view.NestedScrollingParentHelper;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.FocusFinder;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.animation.Interpolator;
+import android.widget.EdgeEffect;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+
+import java.util.List;
+
+/**
+ * Scroll container that snaps to its pages, shared by {@link SnapScrollView} and
+ * {@link HorizontalSnapScrollView}. Touch handling, velocity tracking, fling prediction,
+ * snapping and page layout all work with offsets along the scroll axis, which is picked by
+ * the orientation ({@link #VERTICAL} or {@link #HORIZONTAL}).
+ * <p>
+ * Both views take part in nested scrolling as parent and as child along their scroll axis.
+ */
+public abstract class BaseSnapScrollView extends ViewGroup implements NestedScrollingParent, NestedScrollingChild {
+
+    public static final int VERTICAL = 1;
+    public static final int HORIZONTAL = 2;
+
+    public static final int SCROLL_STATE_IDLE = 0;
+    public static final int SCROLL_STATE_DRAGGING = 1;
+    public static final int SCROLL_STATE_SETTLING = 2;
+
+    public static final int SNAP_ALIGN_START = SnapAnchors.ALIGN_START;
+    public static final int SNAP_ALIGN_CENTER = SnapAnchors.ALIGN_CENTER;
+    public static final int SNAP_ALIGN_END = SnapAnchors.ALIGN_END;
+
+    private SnapAnimator mAnimator;
+    private VelocityTracker mVelocityTracker;
+    private PageRecycler mRecycler;
+    private PageDetacher mDetacher;
+    private PagePrefetcher mPrefetcher;
+    private AsyncPageInflater mPageInflater;
+    private View[] mPagePlaceholders;
+    private OnPagePrefetchListener mPrefetchListener;
+    private PageTransformer mPageTransformer;
+    // created by setOverScrollMode, which runs in the View constructor before field initializers
+    private EdgeEffect mEdgeGlowStart;
+    private EdgeEffect mEdgeGlowEnd;
+    private boolean mContentOverScroll = true;
+    private float mAbsorbVelocity;
+    private boolean mTransformPending;
+    private SnapMetricsTracker mMetrics;
+    private final PageChangeDispatcher mPageChange = new PageChangeDispatcher();
+    private NestedScrollingParentHelper mParentHelper;
+    private NestedScrollingChildHelper mChildHelper;
+    private final int[] mScrollOffset = new int[2];
+    private final int[] mScrollConsumed = new int[2];
+    private final int[] mParentConsumed = new int[2];
+    private int mNestedOffset;
+    private SnapAdapter mAdapter;
+    private FlingPhysics mFlingPhysics;
+    private final PageLayoutEngine mLayoutEngine = new PageLayoutEngine();
+    private final PageOffsetIndex mOffsetIndex = new PageOffsetIndex();
+    private final SnapDecisionEngine mSnapDecision = new SnapDecisionEngine();
+    private final SnapAnchors mAnchors = new SnapAnchors();
+    private final DataSetObserver mAdapterObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            mPrefetcher.clear();
+            mRecycler.recycleAll();
+            mOffsetIndex.clear();
+            mFirstAttachedPage = -1;
+            mLastAttachedPage = -1;
+            requestLayout();
+        }
+    };
+
+    private int mLastMotionPos;
+
+    private int mMaximumHeight;
+    private int mMaximumWidth;
+
+    private int mPageHeight;
+    private int mPageWidth;
+
+    private int mMaximumVelocity;
+    private int mMinimumVelocity;
+
+    private int mChildHeight;
+    private int mChildWidth;
+
+    private int mCurrentPage = 0;
+    private int mScrolledPage = 0;
+    private int mScrolledPageOffset = 0;
+    private int mRestoredPage = -1;
+    private int mRestoredPageOffset;
+    private boolean mRestoredAnimating;
+    private int mFirstAttachedPage = -1;
+    private int mLastAttachedPage = -1;
+    // static pages measured and laid out so far while the first layout is completed lazily
+    private int mLazyFirstPage = -1;
+    private int mLazyLastPage = -1;
+    private boolean mLazyLayoutScheduled;
+    // page that takes focus once the snap started by a key press settles, -1 for none
+    private int mPendingFocusPage = -1;
+    private int mPendingFocusDirection;
+    private int mOverscrollDistance;
+    private int mTouchSlop;
+    private int mActivePointerId = INVALID_POINTER;
+    private int mScrollMode = VERTICAL;
+    private int mSnapAlignment = SNAP_ALIGN_START;
+    private int mPeekPercent;
+
+    private boolean mIsBeingDragged, isDrag;
+    private boolean snap;
+
+    private int childTopMargin = 0;
+    private int childBottomMargin = 0;
+    private int childLeftMargin = 0;
+    private int childRightMargin = 0;
+
+    private static final int INVALID_POINTER = -1;
+    private static final int DEFAULT_DURATION = 800;
+    private static final int SMOOTH_SCROLL_PAGE_LIMIT = 2;
+    private static final int DEFAULT_HORIZONTAL_CHILD_LEFT_MARGIN = 10;
+    private static final long LAZY_LAYOUT_BUDGET_NANOS = 4000000;
+
+    /**
+     * @param orientation scroll axis used unless the mScrollmode attribute overrides it.
+     */
+    public BaseSnapScrollView(Context context, AttributeSet attrs, int defStyleAttr, int orientation) {
+        super(context, attrs, defStyleAttr);
+        init();
+
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SnapScrollView, defStyleAttr, 0);
+        setScrollMode(a.getInteger(R.styleable.SnapScrollView_mScrollmode, orientation));
+        setSnap(a.getBoolean(R.styleable.SnapScrollView_snap, true));
+        setChildTopMargin((int) a.getDimension(R.styleable.SnapScrollView_childTopMargin, 0));
+        setChildLeftMargin((int) a.getDimension(R.styleable.SnapScrollView_childTLeftMargin,
+                orientation == HORIZONTAL ? DEFAULT_HORIZONTAL_CHILD_LEFT_MARGIN : 0));
+        setChildBottomMargin((int) a.getDimension(R.styleable.SnapScrollView_childBottomMargin, 0));
+        setChildRightMargin((int) a.getDimension(R.styleable.SnapScrollView_childRightMargin, 0));
+        setOffscreenPageLimit(a.getInteger(R.styleable.SnapScrollView_offscreenPageLimit, PageRecycler.DEFAULT_OFFSCREEN_PAGE_LIMIT));
+        setSnapCurve(a.getInt(R.styleable.SnapScrollView_snapCurve, SnapInterpolator.CURVE_VISCOUS_FLUID));
+        setDetachPageDistance(a.getInteger(R.styleable.SnapScrollView_detachPageDistance, PageDetacher.DETACH_DISABLED));
+        setSnapAlignment(a.getInt(R.styleable.SnapScrollView_snapAlignment,
+                orientation == HORIZONTAL ? SNAP_ALIGN_CENTER : SNAP_ALIGN_START));
+        setPeekPercent(a.getInteger(R.styleable.SnapScrollView_peekPercent, 0));
+        setSnapPageGroupSize(a.getInteger(R.styleable.SnapScrollView_snapPageGroupSize, 1));
+        setMaxPagesPerFling(a.getInteger(R.styleable.SnapScrollView_maxPagesPerFling, 0));
+        setContentOverScrollEnabled(a.getBoolean(R.styleable.SnapScrollView_contentOverScroll, true));
+        if (a.hasValue(R.styleable.SnapScrollView_initialPage)) {
+            setInitialPage(a.getInteger(R.styleable.SnapScrollView_initialPage, 0));
+        }
+        a.recycle();
+    }
+
+    private void init() {
+        setFocusable(true);
+        setDescendantFocusability(FOCUS_AFTER_DESCENDANTS);
+        setWillNotDraw(false);
+        final ViewConfiguration configuration = ViewConfiguration.get(getContext());
+        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+        mMinimumVelocity = configuration.getScaledMinimumFlingVelocity();
+        mOverscrollDistance = configuration.getScaledOverscrollDistance();
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mParentHelper = new NestedScrollingParentHelper(this);
+        mChildHelper = new NestedScrollingChildHelper(this);
+        setNestedScrollingEnabled(true);
+        mFlingPhysics = FlingPhysics.get(getResources().getDisplayMetrics().density, ViewConfiguration.getScrollFriction());
+        mAnimator = new SnapAnimator(mFlingPhysics, SnapInterpolator.forCurve(SnapInterpolator.CURVE_VISCOUS_FLUID), new SnapAnimator.Callback() {
+            @Override
+            public void onAnimationUpdate(int offset) {
+                scrollToOffset(offset);
+                if (mMetrics.isEnabled()) {
+                    mMetrics.onPageChanged(getPageAt(offset));
+                }
+            }
+
+            @Override
+            public void onAnimationEnd() {
+                if (mAbsorbVelocity != 0) {
+                    // the fling was stopped by the edge of the content
+                    absorbEdgeGlow(mAbsorbVelocity);
+                    mAbsorbVelocity = 0;
+                }
+                updateSettleState();
+                if (mPendingFocusPage >= 0 && hasFocus()) {
+                    focusPage(mPendingFocusPage, mPendingFocusDirection, false);
+                }
+            }
+        });
+        mRecycler = new PageRecycler(this, new PageRecycler.Callback() {
+            @Override
+            public void addPage(View page, int position) {
+                addAdapterPage(page, position);
+            }
+
+            @Override
+            public void removePage(View page, int position) {
+                removeViewInLayout(page);
+            }
+        });
+        mMetrics = new SnapMetricsTracker(FrameTiming.getFrameIntervalNanos(getContext()));
+        mPrefetcher = new PagePrefetcher(this, new PagePrefetcher.Callback() {
+            @Override
+            public void prefetchPage(int position) {
+                if (mAdapter != null) {
+                    mRecycler.prefetch(position);
+                }
+                if (mPrefetchListener != null) {
+                    mPrefetchListener.onPrefetchPage(position);
+                }
+            }
+        });
+        mDetacher = new PageDetacher(this, new PageDetacher.Callback() {
+            @Override
+            public void attachPage(View page, int index) {
+                attachViewToParent(page, index, page.getLayoutParams());
+                if (page.isLayoutRequested()) {
+                    // requests made while detached did not reach this view
+                    requestLayout();
+                }
+                invalidate();
+            }
+
+            @Override
+            public void detachPage(View page) {
+                detachViewFromParent(page);
+                invalidate();
+            }
+        });
+    }
+
+    @Override
+    public void addView(View child, int index, LayoutParams params) {
+        // keep the child order of the static pages intact
+        mDetacher.reattachAll();
+        super.addView(child, index, params);
+    }
+
+    @Override
+    public void removeView(View view) {
+        mDetacher.reattachAll();
+        super.removeView(view);
+    }
+
+    @Override
+    public void removeAllViews() {
+        mDetacher.reattachAll();
+        super.removeAllViews();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mAdapter == null) {
+            mDetacher.sync();
+            List<View> pages = mDetacher.getPages();
+            if (mRestoredPage >= 0 && mOffsetIndex.getPageCount() == 0 && !pages.isEmpty()) {
+                // first layout at a given page: only the page and its neighbours are measured
+                int page = Math.min(mRestoredPage, pages.size() - 1);
+                int limit = Math.max(1, mRecycler.getOffscreenPageLimit());
+                mLazyFirstPage = Math.max(0, page - limit);
+                mLazyLastPage = Math.min(pages.size() - 1, page + limit);
+            }
+            if (isLazyLayoutPending()) {
+                mLazyLastPage = Math.min(mLazyLastPage, pages.size() - 1);
+                mLazyFirstPage = Math.min(mLazyFirstPage, mLazyLastPage);
+            }
+            if (isLazyLayoutPending()) {
+                pages = pages.subList(mLazyFirstPage, mLazyLastPage + 1);
+            }
+            mLayoutEngine.measurePages(this, pages, widthMeasureSpec, heightMeasureSpec);
+        } else {
+            mLayoutEngine.measurePages(this, widthMeasureSpec, heightMeasureSpec);
+        }
+        if (mAdapter == null) {
+            mChildWidth = mLayoutEngine.getMaxPageWidth();
+            mChildHeight = mLayoutEngine.getMaxPageHeight();
+        }
+        // the scroll axis fills the parent, the cross axis wraps the pages unless it is exact
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec);
+        if (isVertical()) {
+            width = wrapCrossAxis(widthMeasureSpec, mChildWidth + getPaddingLeft() + getPaddingRight());
+        } else {
+            height = wrapCrossAxis(heightMeasureSpec, mChildHeight + getPaddingTop() + getPaddingBottom());
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    private static int wrapCrossAxis(int measureSpec, int contentSize) {
+        int size = MeasureSpec.getSize(measureSpec);
+        switch (MeasureSpec.getMode(measureSpec)) {
+            case MeasureSpec.EXACTLY:
+                return size;
+            case MeasureSpec.AT_MOST:
+                return Math.min(size, contentSize);
+            default:
+                return contentSize;
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean b, int left, int top, int right, int bottom) {
+        if (mAdapter != null) {
+            mFirstAttachedPage = -1;
+            mLastAttachedPage = -1;
+            fillAdapterPages();
+        } else {
+            mDetacher.sync();
+            int count = mDetacher.getPageCount();
+            mOffsetIndex.setPageCount(count);
+            boolean lazy = isLazyLayoutPending();
+            for (int i = 0; i < count; i++) {
+                View child = mDetacher.getPage(i);
+                if (child.getVisibility() == GONE) {
+                    mOffsetIndex.setPageSize(i, 0);
+                } else if (!lazy || (i >= mLazyFirstPage && i <= mLazyLastPage)) {
+                    mOffsetIndex.setPageSize(i, mLayoutEngine.getPageExtent(child));
+                } else if (mLayoutEngine.getDeclaredExtent(child) >= 0) {
+                    mOffsetIndex.setPageSize(i, mLayoutEngine.getDeclaredExtent(child));
+                }
+            }
+            if (lazy) {
+                // pages not measured yet are as large as the measured ones
+                mOffsetIndex.setEstimatedPageSize(mLayoutEngine.getMaxPageExtent());
+            }
+            updateContentSize();
+            int first = lazy ? mLazyFirstPage : 0;
+            int last = lazy ? mLazyLastPage : count - 1;
+            if (applyRestoredScroll()) {
+                // only the restored page and its neighbours are placed before the first frame
+                int scroll = Math.max(0, getScrollOffset());
+                int limit = mRecycler.getOffscreenPageLimit();
+                first = Math.max(first, mOffsetIndex.findPageAt(scroll) - limit);
+                last = Math.min(last, mOffsetIndex.findPageAt(scroll + getViewportSize()) + limit);
+                if (!lazy && (first > 0 || last < count - 1)) {
+                    post(mDeferredLayout);
+                }
+            }
+            layoutStaticPages(first, last);
+            if (lazy && !mLazyLayoutScheduled) {
+                mLazyLayoutScheduled = true;
+                Looper.myQueue().addIdleHandler(mLazyLayoutStep);
+            }
+        }
+        mPageWidth = mChildWidth;
+        mPageHeight = mChildHeight;
+        SnapAnchors anchors = getAnchors();
+        scrollToOffset(Math.max(anchors.getMinScroll(), Math.min(getScrollOffset(), anchors.getMaxScroll())));
+        updateDetachedPages();
+        updateCurrentPage();
+        mTransformPending = mPageTransformer != null;
+        if (mRestoredAnimating) {
+            // the animation was cut short by the state save, finish it on the closest page
+            mRestoredAnimating = false;
+            settleToCurrentPage();
+        }
+    }
+
+    private final Runnable mDeferredLayout = new Runnable() {
+        @Override
+        public void run() {
+            if (mAdapter == null && !isLazyLayoutPending() && mOffsetIndex.getPageCount() == mDetacher.getPageCount()) {
+                layoutStaticPages(0, mOffsetIndex.getPageCount() - 1);
+                invalidate();
+            }
+        }
+    };
+
+    private final MessageQueue.IdleHandler mLazyLayoutStep = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            mLazyLayoutScheduled = layoutLazyPages();
+            return mLazyLayoutScheduled;
+        }
+    };
+
+    private final ViewTreeObserver.OnPreDrawListener mTransformPages = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            if (mTransformPending) {
+                transformPages();
+            }
+            return true;
+        }
+    };
+
+    private boolean isLazyLayoutPending() {
+        return mLazyFirstPage >= 0;
+    }
+
+    /**
+     * Measures and places the static pages next to the ones laid out so far until the time
+     * budget of the idle period is used up. Pages before the visible one are only added
+     * while the view is at rest, and the visible page keeps its position when they are.
+     *
+     * @return true while pages are left.
+     */
+    private boolean layoutLazyPages() {
+        if (!isLazyLayoutPending()) {
+            return false;
+        }
+        mDetacher.sync();
+        int count = mDetacher.getPages().size();
+        if (mAdapter != null || mOffsetIndex.getPageCount() != count) {
+            // the pages changed, a full layout takes over
+            mLazyFirstPage = -1;
+            mLazyLastPage = -1;
+            requestLayout();
+            return false;
+        }
+        boolean atRest = !mIsBeingDragged && mAnimator.isFinished();
+        int page = mScrolledPage;
+        int pageOffset = getScrollOffset() - getAnchors().getAnchor(page);
+        boolean shifted = false;
+        long deadline = System.nanoTime() + LAZY_LAYOUT_BUDGET_NANOS;
+        while (System.nanoTime() < deadline) {
+            boolean before = atRest && mLazyFirstPage > 0
+                    && (mLazyLastPage == count - 1 || page - mLazyFirstPage < mLazyLastPage - page);
+            int next;
+            if (before) {
+                next = --mLazyFirstPage;
+                shifted = true;
+            } else if (mLazyLastPage < count - 1) {
+                next = ++mLazyLastPage;
+            } else {
+                break;
+            }
+            View child = mDetacher.getPage(next);
+            if (child.getVisibility() == GONE) {
+                mOffsetIndex.setPageSize(next, 0);
+            } else {
+                mLayoutEngine.measurePage(this, child);
+                mOffsetIndex.setPageSize(next, mLayoutEngine.getPageExtent(child));
+            }
+        }
+        if (shifted) {
+            scrollToOffset(getAnchors().getAnchor(page) + pageOffset);
+        }
+        layoutStaticPages(mLazyFirstPage, mLazyLastPage);
+        updateContentSize();
+        updateDetachedPages();
+        mTransformPending = mPageTransformer != null;
+        invalidate();
+        if (mLayoutEngine.getMaxPageWidth() > mChildWidth || mLayoutEngine.getMaxPageHeight() > mChildHeight) {
+            // the cross axis wraps the pages
+            requestLayout();
+        }
+        if (mLazyFirstPage == 0 && mLazyLastPage == count - 1) {
+            mLazyFirstPage = -1;
+            mLazyLastPage = -1;
+            return false;
+        }
+        return true;
+    }
+
+    private void layoutStaticPages(int first, int last) {
+        for (int i = first; i <= last; i++) {
+            View child = mDetacher.getPage(i);
+            if (child.getVisibility() != GONE) {
+                mLayoutEngine.layoutPage(this, child, mOffsetIndex.getPageStart(i));
+            }
+        }
+    }
+
+    /**
+     * Scrolls to the position kept by {@link #onRestoreInstanceState(Parcelable)} once the
+     * page offsets are known.
+     *
+     * @return true when a restored position was applied.
+     */
+    private boolean applyRestoredScroll() {
+        int count = mOffsetIndex.getPageCount();
+        if (mRestoredPage < 0 || count == 0) {
+            return false;
+        }
+        SnapAnchors anchors = getAnchors();
+        int page = Math.min(mRestoredPage, count - 1);
+        int pageOffset = Math.min(mRestoredPageOffset, Math.max(0, anchors.getAnchor(page + 1) - anchors.getAnchor(page) - 1));
+        mRestoredPage = -1;
+        scrollToOffset(anchors.getAnchor(page) + pageOffset);
+        return true;
+    }
+
+    @Override
+    protected void dispatchSaveInstanceState(SparseArray<Parcelable> container) {
+        // far pages have to be children to save the state of their views
+        mDetacher.reattachAll();
+        super.dispatchSaveInstanceState(container);
+        updateDetachedPages();
+    }
+
+    @Override
+    protected void dispatchRestoreInstanceState(SparseArray<Parcelable> container) {
+        mDetacher.reattachAll();
+        super.dispatchRestoreInstanceState(container);
+        updateDetachedPages();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        if (mRestoredPage >= 0) {
+            // not laid out since the last restore
+            state.page = mRestoredPage;
+            state.pageOffset = mRestoredPageOffset;
+            state.animating = mRestoredAnimating;
+        } else {
+            state.page = mScrolledPage;
+            state.pageOffset = mScrolledPageOffset;
+            state.animating = !mAnimator.isFinished();
+        }
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        mRestoredPage = savedState.page;
+        mRestoredPageOffset = savedState.pageOffset;
+        mRestoredAnimating = savedState.animating;
+        mFirstAttachedPage = -1;
+        mLastAttachedPage = -1;
+        requestLayout();
+    }
+
+    /**
+     * Detaches the static pages too far away from the viewport when a detach distance is set.
+     */
+    private void updateDetachedPages() {
+        if (mAdapter != null || !mDetacher.isEnabled() || mOffsetIndex.getPageCount() == 0) {
+            return;
+        }
+        int scroll = Math.max(0, getScrollOffset());
+        mDetacher.update(mOffsetIndex.findPageAt(scroll), mOffsetIndex.findPageAt(scroll + getViewportSize()));
+    }
+
+    /**
+     * Skips drawing pages that lie completely outside of the visible scroll window.
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        boolean visible;
+        if (isVertical()) {
+            float top = child.getTop() + child.getTranslationY();
+            visible = top < getScrollY() + getHeight() && top + child.getHeight() > getScrollY();
+        } else {
+            float left = child.getLeft() + child.getTranslationX();
+            visible = left < getScrollX() + getWidth() && left + child.getWidth() > getScrollX();
+        }
+        return visible && super.drawChild(canvas, child, drawingTime);
+    }
+
+    private void updateContentSize() {
+        if (isVertical()) {
+            mMaximumHeight = mOffsetIndex.getTotalSize();
+            mMaximumWidth = getMeasuredWidth();
+        } else {
+            mMaximumWidth = mOffsetIndex.getTotalSize();
+            mMaximumHeight = getMeasuredHeight();
+        }
+    }
+
+    /**
+     * Attaches the adapter pages inside the viewport plus the offscreen page limit on
+     * either side, recycling the ones that moved out of that range.
+     */
+    private void fillAdapterPages() {
+        int count = mRecycler.getItemCount();
+        if (count == 0) {
+            mRecycler.recycleAll();
+            mOffsetIndex.setPageCount(0);
+            updateContentSize();
+            return;
+        }
+        mOffsetIndex.setPageCount(count);
+        if (mOffsetIndex.getEstimatedPageSize() == 0) {
+            // page size is only known after the first page is measured
+            int page = mRestoredPage >= 0 ? Math.min(mRestoredPage, count - 1) : 0;
+            mRecycler.fill(page, page);
+        }
+        applyRestoredScroll();
+        int scroll = Math.max(0, getScrollOffset());
+        int limit = mRecycler.getOffscreenPageLimit();
+        int first = Math.max(0, mOffsetIndex.findPageAt(scroll) - limit);
+        int last = Math.min(count - 1, mOffsetIndex.findPageAt(scroll + getViewportSize()) + limit);
+        if (first == mFirstAttachedPage && last == mLastAttachedPage) {
+            return;
+        }
+        mFirstAttachedPage = first;
+        mLastAttachedPage = last;
+        mRecycler.fill(first, last);
+
+        for (int i = 0; i < mRecycler.getActiveCount(); i++) {
+            mLayoutEngine.layoutPage(this, mRecycler.getActivePageAt(i), mOffsetIndex.getPageStart(mRecycler.getActivePositionAt(i)));
+        }
+        updateContentSize();
+    }
+
+    private void addAdapterPage(View page, int position) {
+        LayoutParams params = page.getLayoutParams();
+        if (params == null) {
+            params = generateDefaultLayoutParams();
+        }
+        addViewInLayout(page, -1, params, true);
+        mLayoutEngine.measurePage(this, page);
+        int extent = mLayoutEngine.getPageExtent(page);
+        if (mOffsetIndex.getEstimatedPageSize() == 0) {
+            mOffsetIndex.setEstimatedPageSize(extent);
+        }
+        mOffsetIndex.setPageSize(position, extent);
+        boolean grown = isVertical() ? mLayoutEngine.getMaxPageWidth() > mChildWidth
+                : mLayoutEngine.getMaxPageHeight() > mChildHeight;
+        mChildHeight = Math.max(mChildHeight, mLayoutEngine.getMaxPageHeight());
+        mChildWidth = Math.max(mChildWidth, mLayoutEngine.getMaxPageWidth());
+        if (grown) {
+            // adapter pages are only bound in layout, the cross axis wraps them
+            requestLayout();
+        }
+    }
+
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        if (mAdapter != null) {
+            fillAdapterPages();
+        } else {
+            updateDetachedPages();
+        }
+        updateCurrentPage();
+        mTransformPending = mPageTransformer != null;
+    }
+
+    /**
+     * Hands the pages in and next to the viewport to the page transformer, with their
+     * offset from the snap position measured in page sizes.
+     */
+    private void transformPages() {
+        mTransformPending = false;
+        int count = mOffsetIndex.getPageCount();
+        if (mPageTransformer == null || count == 0 || count != getPageCount()) {
+            return;
+        }
+        SnapAnchors anchors = getAnchors();
+        int scroll = getScrollOffset();
+        int first = Math.max(0, mOffsetIndex.findPageAt(Math.max(0, scroll)) - 1);
+        int last = Math.min(count - 1, mOffsetIndex.findPageAt(Math.max(0, scroll + getViewportSize())) + 1);
+        for (int i = first; i <= last; i++) {
+            View page = getPageView(i);
+            if (page == null || page.getParent() != this) {
+                continue;
+            }
+            int size = mOffsetIndex.getPageSize(i);
+            mPageTransformer.transformPage(page, size > 0 ? (float) (anchors.getAnchor(i) - scroll) / size : 0);
+        }
+    }
+
+    /**
+     * Works out the current page from the scroll offset: the page whose snap anchor is
+     * closest becomes the current page.
+     */
+    private void updateCurrentPage() {
+        int count = mOffsetIndex.getPageCount();
+        if (count == 0) {
+            return;
+        }
+        SnapAnchors anchors = getAnchors();
+        int position = getScrollOffset();
+        int page = anchors.findAnchorAt(position);
+        int pageSize = anchors.getAnchor(page + 1) - anchors.getAnchor(page);
+        int pixels = Math.max(0, Math.min(position - anchors.getAnchor(page), pageSize));
+        float fraction = pageSize > 0 ? (float) pixels / pageSize : 0;
+        if (fraction >= 1) {
+            fraction = 0;
+            pixels = 0;
+        }
+        mScrolledPage = page;
+        mScrolledPageOffset = pixels;
+        mCurrentPage = anchors.findClosestAnchor(position);
+        mPageChange.onPageScrolled(page, fraction, pixels);
+        mPageChange.onPageSelected(mCurrentPage);
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new MarginLayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new MarginLayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(LayoutParams p) {
+        if (p instanceof MarginLayoutParams) {
+            return new MarginLayoutParams((MarginLayoutParams) p);
+        }
+        return new MarginLayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(LayoutParams p) {
+        return p instanceof MarginLayoutParams;
+    }
+
+    /**
+     * @return number of pages, either the adapter item count or the number of child views.
+     */
+    public int getPageCount() {
+        return mAdapter != null ? mAdapter.getItemCount() : mDetacher.getPageCount();
+    }
+
+    /**
+     * @return the view of the page, or null when an adapter page is not bound right now.
+     */
+    private View getPageView(int position) {
+        return mAdapter != null ? mRecycler.getActivePage(position) : mDetacher.getPage(position);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        // the focused page sees the key first, only unhandled keys move between pages
+        return super.dispatchKeyEvent(event) || executeKeyEvent(event);
+    }
+
+    /**
+     * Handles a key the focused page did not use. Arrows along the scroll axis move focus
+     * within the current page and snap to the next page once there is nothing left to focus
+     * in that direction. Page up and down and space snap by a page group, home and end snap
+     * to the first and last page.
+     *
+     * @return whether the event was handled
+     */
+    public boolean executeKeyEvent(KeyEvent event) {
+        if (event.getAction() != KeyEvent.ACTION_DOWN) {
+            return false;
+        }
+        boolean vertical = isVertical();
+        switch (event.getKeyCode()) {
+            case KeyEvent.KEYCODE_DPAD_UP:
+                return vertical && arrowScroll(View.FOCUS_UP);
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+                return vertical && arrowScroll(View.FOCUS_DOWN);
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                return !vertical && arrowScroll(View.FOCUS_LEFT);
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                return !vertical && arrowScroll(View.FOCUS_RIGHT);
+            case KeyEvent.KEYCODE_PAGE_UP:
+                return navigateToPage(getStepPage(false), getFocusDirection(false));
+            case KeyEvent.KEYCODE_PAGE_DOWN:
+                return navigateToPage(getStepPage(true), getFocusDirection(true));
+            case KeyEvent.KEYCODE_SPACE:
+                boolean forward = !event.isShiftPressed();
+                return navigateToPage(getStepPage(forward), getFocusDirection(forward));
+            case KeyEvent.KEYCODE_MOVE_HOME:
+                return navigateToPage(0, getFocusDirection(false));
+            case KeyEvent.KEYCODE_MOVE_END:
+                return navigateToPage(getPageCount() - 1, getFocusDirection(true));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Moves focus to the next focusable view of the current page in the given direction, or
+     * snaps to the next page and focuses into it. Only the current page and the destination
+     * page are searched, never the whole window.
+     *
+     * @param direction one of {@link View#FOCUS_UP}, {@link View#FOCUS_DOWN},
+     *                  {@link View#FOCUS_LEFT} and {@link View#FOCUS_RIGHT}
+     * @return whether focus or the current page changed
+     */
+    public boolean arrowScroll(int direction) {
+        if (getPageCount() == 0 || mOffsetIndex.getPageCount() != getPageCount()) {
+            return false;
+        }
+        View page = getPageView(mCurrentPage);
+        View focused = findFocus();
+        if (page instanceof ViewGroup && focused != null && isDescendant(focused, page)) {
+            View next = FocusFinder.getInstance().findNextFocus((ViewGroup) page, focused, direction);
+            if (next != null && next.requestFocus(direction)) {
+                return true;
+            }
+        }
+        return navigateToPage(getStepPage(direction == View.FOCUS_DOWN || direction == View.FOCUS_RIGHT), direction);
+    }
+
+    private int getFocusDirection(boolean forward) {
+        if (isVertical()) {
+            return forward ? View.FOCUS_DOWN : View.FOCUS_UP;
+        }
+        return forward ? View.FOCUS_RIGHT : View.FOCUS_LEFT;
+    }
+
+    /**
+     * @return the page one page group before or after the current page, clamped to the pages.
+     */
+    private int getStepPage(boolean forward) {
+        int page = mCurrentPage + (forward ? getSnapPageGroupSize() : -getSnapPageGroupSize());
+        return Math.max(0, Math.min(page, getPageCount() - 1));
+    }
+
+    /**
+     * @return whether snapping to the page moves the content, which is not the case for the
+     * current page and for pages sharing its snap position.
+     */
+    private boolean canSnapToPage(int page) {
+        int count = mOffsetIndex.getPageCount();
+        return count > 0 && count == getPageCount() && page >= 0 && page < count
+                && getPageSnapOffset(page) != getPageSnapOffset(mCurrentPage);
+    }
+
+    private boolean navigateToPage(int page, int direction) {
+        if (!canSnapToPage(page)) {
+            return false;
+        }
+        smoothScrollToPage(page);
+        focusPage(page, direction, true);
+        return true;
+    }
+
+    /**
+     * Gives focus to the first focusable view of the page in the given direction. A page
+     * that is not attached yet is focused once the snap settles, unless canWait is false.
+     * When the page has nothing to focus the view itself takes focus, so focus does not
+     * stay on a page that was scrolled away.
+     */
+    private void focusPage(int page, int direction, boolean canWait) {
+        View view = page < getPageCount() ? getPageView(page) : null;
+        boolean attached = view != null && view.getParent() == this;
+        if (!attached && canWait) {
+            mPendingFocusPage = page;
+            mPendingFocusDirection = direction;
+            return;
+        }
+        mPendingFocusPage = -1;
+        if (attached && view.requestFocus(direction)) {
+            return;
+        }
+        if (hasFocus() && !isFocused()) {
+            int descendantFocusability = getDescendantFocusability();
+            setDescendantFocusability(FOCUS_BEFORE_DESCENDANTS);
+            requestFocus();
+            setDescendantFocusability(descendantFocusability);
+        }
+    }
+
+    private static boolean isDescendant(View view, View ancestor) {
+        ViewParent parent = view.getParent();
+        while (parent instanceof View) {
+            if (parent == ancestor) {
+                return true;
+            }
+            parent = parent.getParent();
+        }
+        return false;
+    }
+
+    /**
+     * @return the framework scroll container reported to accessibility services, so they
+     * treat the view as a scrolling list of pages.
+     */
+    private CharSequence getScrollContainerClassName() {
+        return isVertical() ? ScrollView.class.getName() : HorizontalScrollView.class.getName();
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        event.setClassName(getScrollContainerClassName());
+        int count = mOffsetIndex.getPageCount();
+        event.setScrollable(count > 1 && getScrollRange() > 0);
+        event.setItemCount(getPageCount());
+        if (count > 0 && count == getPageCount()) {
+            int scroll = getScrollOffset();
+            event.setFromIndex(mOffsetIndex.findPageAt(Math.max(0, scroll)));
+            event.setToIndex(mOffsetIndex.findPageAt(Math.max(0, scroll + getViewportSize() - 1)));
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(getScrollContainerClassName());
+        int count = getPageCount();
+        info.setScrollable(count > 1 && getScrollRange() > 0);
+        if (isEnabled()) {
+            if (canSnapToPage(getStepPage(false))) {
+                info.addAction(AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD);
+            }
+            if (canSnapToPage(getStepPage(true))) {
+                info.addAction(AccessibilityNodeInfo.ACTION_SCROLL_FORWARD);
+            }
+        }
+        boolean vertical = isVertical();
+        info.setCollectionInfo(AccessibilityNodeInfo.CollectionInfo.obtain(vertical ? count : 1, vertical ? 1 : count, false));
+    }
+
+    @Override
+    public boolean performAccessibilityAction(int action, Bundle arguments) {
+        if (super.performAccessibilityAction(action, arguments)) {
+            return true;
+        }
+        if (!isEnabled()) {
+            return false;
+        }
+        int page;
+        switch (action) {
+            case AccessibilityNodeInfo.ACTION_SCROLL_FORWARD:
+                page = getStepPage(true);
+                break;
+            case AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD:
+                page = getStepPage(false);
+                break;
+            default:
+                return false;
+        }
+        if (!canSnapToPage(page)) {
+            return false;
+        }
+        smoothScrollToPage(page);
+        return true;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        final int action = ev.getActionMasked();
+        if ((action == MotionEvent.ACTION_MOVE) && (mIsBeingDragged)) {
+            return true;
+        }
+
+        if (getScrollOffset() == 0 && getScrollRange() == 0) {
+            return false;
+        }
+        switch (action) {
+            case MotionEvent.ACTION_DOWN: {
+                if (!inChild((int) ev.getX(), (int) ev.getY())) {
+                    mIsBeingDragged = false;
+                    recycleVelocityTracker();
+                    break;
+                }
+                mLastMotionPos = getMotionPos(ev, 0);
+
+                mActivePointerId = ev.getPointerId(0);
+                mNestedOffset = 0;
+                initVelocityTracker();
+                trackMovement(ev);
+                mIsBeingDragged = !mAnimator.isFinished();
+                startNestedScroll(getNestedScrollAxis());
+                break;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                final int activePointerId = mActivePointerId;
+                if (activePointerId == INVALID_POINTER) {
+                    break;
+                }
+                final int pointerIndex = ev.findPointerIndex(activePointerId);
+                if (pointerIndex == -1) {
+                    break;
+                }
+                final int pos = getMotionPos(ev, pointerIndex);
+                // a nested child scrolling along the same axis keeps the gesture
+                if (Math.abs(pos - mLastMotionPos) > mTouchSlop && (getNestedScrollAxes() & getNestedScrollAxis()) == 0) {
+                    mIsBeingDragged = true;
+                    onDragStarted();
+                    mLastMotionPos = pos;
+                    initVelocityTracker();
+                    trackMovement(ev);
+                    final ViewParent parent = getParent();
+                    if (parent != null) {
+                        parent.requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP:
+                onSecondaryPointerUp(ev);
+                break;
+            case MotionEvent.ACTION_CANCEL:
+            case MotionEvent.ACTION_UP:
+                mIsBeingDragged = false;
+                mActivePointerId = INVALID_POINTER;
+                recycleVelocityTracker();
+                mAnimator.springBack(getScrollOffset(), getAnchors().getMinScroll(), getAnchors().getMaxScroll());
+                updateSettleState();
+                stopNestedScroll();
+                break;
+        }
+        return mIsBeingDragged;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        initVelocityTracker();
+
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mNestedOffset = 0;
+        }
+        trackMovement(ev);
+
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                if (getPageCount() == 0) {
+                    return false;
+                }
+                if ((mIsBeingDragged = !mAnimator.isFinished())) {
+                    final ViewParent parent = getParent();
+                    if (parent != null) {
+                        parent.requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                if (!mAnimator.isFinished()) {
+                    mAnimator.abort();
+                    mAbsorbVelocity = 0;
+                    mPendingFocusPage = -1;
+                    mMetrics.onSettled(getScrollOffset(), true);
+                }
+                if (mIsBeingDragged) {
+                    onDragStarted();
+                }
+                mPrefetcher.clear();
+                mLastMotionPos = getMotionPos(ev, 0);
+                mActivePointerId = ev.getPointerId(0);
+                startNestedScroll(getNestedScrollAxis());
+                break;
+            case MotionEvent.ACTION_MOVE:
+                final int activePointerIndex = ev.findPointerIndex(mActivePointerId);
+                if (activePointerIndex == -1) {
+                    break;
+                }
+                move(getMotionPos(ev, activePointerIndex));
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN: {
+                // the latest finger takes over the drag
+                final int index = ev.getActionIndex();
+                mLastMotionPos = getMotionPos(ev, index);
+                mActivePointerId = ev.getPointerId(index);
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP:
+                onSecondaryPointerUp(ev);
+                break;
+            case MotionEvent.ACTION_UP:
+                if (mIsBeingDragged) {
+                    final VelocityTracker velocityTrack = mVelocityTracker;
+                    velocityTrack.computeCurrentVelocity(1000, mMaximumVelocity);
+                    int velocity = (int) (isVertical() ? velocityTrack.getYVelocity(mActivePointerId)
+                            : velocityTrack.getXVelocity(mActivePointerId));
+                    if (mMetrics.isEnabled()) {
+                        mMetrics.onRelease(getPageAt(getScrollOffset()));
+                    }
+                    float scrollVelocity = -velocity;
+                    if (dispatchNestedPreFling(isVertical() ? 0 : scrollVelocity, isVertical() ? scrollVelocity : 0)) {
+                        // a parent took the fling, only bring the current page into place
+                        settleToCurrentPage();
+                    } else {
+                        dispatchNestedFling(isVertical() ? 0 : scrollVelocity, isVertical() ? scrollVelocity : 0, true);
+                        if (snap) {
+                            computeSnapScroll(velocity);
+                        } else {
+                            fling(-velocity);
+                        }
+                    }
+                    updateSettleState();
+                }
+                mActivePointerId = INVALID_POINTER;
+                endDrag();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                if (mIsBeingDragged) {
+                    mAnimator.springBack(getScrollOffset(), getAnchors().getMinScroll(), getAnchors().getMaxScroll());
+                    updateSettleState();
+                }
+                mActivePointerId = INVALID_POINTER;
+                endDrag();
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the event to the velocity tracker in the coordinates the gesture started in, as
+     * parents moving this view during nested scrolls would distort the velocity otherwise.
+     * The tracker reads the batched historical samples of the event as well, and the event
+     * is shifted in place and back, so no copy is allocated.
+     */
+    private void trackMovement(MotionEvent ev) {
+        final float dx = isVertical() ? 0 : mNestedOffset;
+        final float dy = isVertical() ? mNestedOffset : 0;
+        ev.offsetLocation(dx, dy);
+        mVelocityTracker.addMovement(ev);
+        ev.offsetLocation(-dx, -dy);
+    }
+
+    /**
+     * Hands the drag to another pointer when the active one is lifted.
+     */
+    private void onSecondaryPointerUp(MotionEvent ev) {
+        final int pointerIndex = ev.getActionIndex();
+        if (ev.getPointerId(pointerIndex) == mActivePointerId) {
+            final int newPointerIndex = pointerIndex == 0 ? 1 : 0;
+            mLastMotionPos = getMotionPos(ev, newPointerIndex);
+            mActivePointerId = ev.getPointerId(newPointerIndex);
+            if (mVelocityTracker != null) {
+                mVelocityTracker.clear();
+            }
+        }
+    }
+
+    @Override
+    public void setOverScrollMode(int mode) {
+        if (mode != OVER_SCROLL_NEVER) {
+            if (mEdgeGlowStart == null) {
+                mEdgeGlowStart = new EdgeEffect(getContext());
+                mEdgeGlowEnd = new EdgeEffect(getContext());
+            }
+        } else {
+            mEdgeGlowStart = null;
+            mEdgeGlowEnd = null;
+        }
+        super.setOverScrollMode(mode);
+    }
+
+    private boolean canShowEdgeGlow() {
+        int mode = getOverScrollMode();
+        return mEdgeGlowStart != null && (mode == OVER_SCROLL_ALWAYS
+                || (mode == OVER_SCROLL_IF_CONTENT_SCROLLS && getAnchors().getMaxScroll() > getAnchors().getMinScroll()));
+    }
+
+    /**
+     * Stretches the glow at the edge a drag pushes past by delta pixels.
+     */
+    private void pullEdgeGlow(int delta) {
+        if (!canShowEdgeGlow()) {
+            return;
+        }
+        float pull = (float) Math.abs(delta) / getViewportSize();
+        EdgeEffect pulled = delta < 0 ? mEdgeGlowStart : mEdgeGlowEnd;
+        EdgeEffect opposite = delta < 0 ? mEdgeGlowEnd : mEdgeGlowStart;
+        pulled.onPull(pull);
+        if (!opposite.isFinished()) {
+            opposite.onRelease();
+        }
+        invalidateEdgeGlows();
+    }
+
+    private void absorbEdgeGlow(float velocity) {
+        if (!canShowEdgeGlow()) {
+            return;
+        }
+        (velocity < 0 ? mEdgeGlowStart : mEdgeGlowEnd).onAbsorb((int) Math.abs(velocity));
+        invalidateEdgeGlows();
+    }
+
+    private void releaseEdgeGlows() {
+        if (mEdgeGlowStart != null) {
+            mEdgeGlowStart.onRelease();
+            mEdgeGlowEnd.onRelease();
+            invalidateEdgeGlows();
+        }
+    }
+
+    /**
+     * Invalidates only the bands along the edges where a glow is showing.
+     */
+    private void invalidateEdgeGlows() {
+        int x = getScrollX();
+        int y = getScrollY();
+        int depth = getEdgeGlowDepth();
+        if (!mEdgeGlowStart.isFinished()) {
+            if (isVertical()) {
+                postInvalidateOnAnimation(x, y, x + getWidth(), y + depth);
+            } else {
+                postInvalidateOnAnimation(x, y, x + depth, y + getHeight());
+            }
+        }
+        if (!mEdgeGlowEnd.isFinished()) {
+            if (isVertical()) {
+                postInvalidateOnAnimation(x, y + getHeight() - depth, x + getWidth(), y + getHeight());
+            } else {
+                postInvalidateOnAnimation(x + getWidth() - depth, y, x + getWidth(), y + getHeight());
+            }
+        }
+    }
+
+    /**
+     * @return depth of the band a glow may cover. Glows never reach further from the edge
+     * than their width along it.
+     */
+    private int getEdgeGlowDepth() {
+        return Math.min(getWidth(), getHeight());
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        super.draw(canvas);
+        if (mEdgeGlowStart != null) {
+            boolean start = drawEdgeGlow(canvas, mEdgeGlowStart, true);
+            boolean end = drawEdgeGlow(canvas, mEdgeGlowEnd, false);
+            if (start || end) {
+                invalidateEdgeGlows();
+            }
+        }
+    }
+
+    /**
+     * Draws a glow at the start or end edge of the viewport, clipped to its band.
+     *
+     * @return true while the glow is animating.
+     */
+    private boolean drawEdgeGlow(Canvas canvas, EdgeEffect glow, boolean start) {
+        if (glow.isFinished()) {
+            return false;
+        }
+        final int restoreCount = canvas.save();
+        final int x = getScrollX();
+        final int y = getScrollY();
+        final int width = getWidth();
+        final int height = getHeight();
+        final int depth = getEdgeGlowDepth();
+        if (isVertical()) {
+            final int glowWidth = width - getPaddingLeft() - getPaddingRight();
+            if (start) {
+                canvas.clipRect(x, y, x + width, y + depth);
+                canvas.translate(x + getPaddingLeft(), y);
+            } else {
+                canvas.clipRect(x, y + height - depth, x + width, y + height);
+                canvas.translate(x + getPaddingLeft() + glowWidth, y + height);
+                canvas.rotate(180);
+            }
+            glow.setSize(glowWidth, height);
+        } else {
+            final int glowWidth = height - getPaddingTop() - getPaddingBottom();
+            if (start) {
+                canvas.clipRect(x, y, x + depth, y + height);
+                canvas.translate(x, y + height - getPaddingBottom());
+                canvas.rotate(270);
+            } else {
+                canvas.clipRect(x + width - depth, y, x + width, y + height);
+                canvas.translate(x + width, y + getPaddingTop());
+                canvas.rotate(90);
+            }
+            glow.setSize(glowWidth, width);
+        }
+        boolean animating = glow.draw(canvas);
+        canvas.restoreToCount(restoreCount);
+        return animating;
+    }
+
+    private void onDragStarted() {
+        mMetrics.onDragStart(getScrollOffset());
+        mPageChange.onScrollStateChanged(SCROLL_STATE_DRAGGING);
+    }
+
+    /**
+     * Moves to the settling state while an animation runs and to idle once it finished.
+     */
+    private void updateSettleState() {
+        if (mAnimator.isFinished()) {
+            mMetrics.onSettled(getScrollOffset(), false);
+            mPageChange.onScrollStateChanged(SCROLL_STATE_IDLE);
+        } else {
+            mPageChange.onScrollStateChanged(SCROLL_STATE_SETTLING);
+        }
+    }
+
+    private void move(int pos) {
+        int diff = mLastMotionPos - pos;
+        if (dispatchNestedPreScroll(isVertical() ? 0 : diff, isVertical() ? diff : 0, mScrollConsumed, mScrollOffset)) {
+            diff -= getAxisValue(mScrollConsumed);
+            mNestedOffset += getAxisValue(mScrollOffset);
+        } else {
+            mScrollOffset[0] = 0;
+            mScrollOffset[1] = 0;
+        }
+        isDrag = isDrag || Math.abs(diff) > mTouchSlop;
+        if (!mIsBeingDragged && Math.abs(diff) > mTouchSlop) {
+            final ViewParent parent = getParent();
+            if (parent != null) {
+                parent.requestDisallowInterceptTouchEvent(true);
+            }
+            mIsBeingDragged = true;
+            onDragStarted();
+            if (diff > 0) {
+                diff -= mTouchSlop;
+            } else {
+                diff += mTouchSlop;
+            }
+        }
+        if (mIsBeingDragged) {
+            mLastMotionPos = pos - getAxisValue(mScrollOffset);
+            if (isDrag) {
+                int scroll = getScrollOffset();
+                int unconsumed = getOverScrollPart(scroll, diff);
+                int consumed = diff - unconsumed;
+                if (unconsumed != 0 && dispatchNestedScroll(isVertical() ? 0 : consumed, isVertical() ? consumed : 0,
+                        isVertical() ? 0 : unconsumed, isVertical() ? unconsumed : 0, mScrollOffset)) {
+                    // the parent handles what is left instead of over scrolling
+                    mLastMotionPos -= getAxisValue(mScrollOffset);
+                    mNestedOffset += getAxisValue(mScrollOffset);
+                    scrollToOffset(scroll + consumed);
+                } else {
+                    scrollToOffset(mContentOverScroll ? scroll + diff : scroll + consumed);
+                    if (unconsumed != 0) {
+                        pullEdgeGlow(unconsumed);
+                    }
+                }
+            }
+            boolean clamped = isVertical()
+                    ? overScrollBy(0, diff, 0, getScrollY(), 0, getScrollRange(), 0, mOverscrollDistance, true)
+                    : overScrollBy(diff, 0, getScrollX(), 0, getScrollRange(), 0, mOverscrollDistance, 0, true);
+            if (clamped) {
+                mVelocityTracker.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the part of a drag by diff that pushes the content further past its first or
+     * last page. Moving back from past a bound is not part of it, even before the bound is
+     * reached again.
+     */
+    private int getOverScrollPart(int scroll, int diff) {
+        SnapAnchors anchors = getAnchors();
+        int target = scroll + diff;
+        if (target > anchors.getMaxScroll()) {
+            return Math.max(0, target - Math.max(scroll, anchors.getMaxScroll()));
+        }
+        if (target < anchors.getMinScroll()) {
+            return Math.min(0, target - Math.min(scroll, anchors.getMinScroll()));
+        }
+        return 0;
+    }
+
+    /**
+     * Picks the page to settle on for a release with the given touch velocity and starts
+     * the snap (or fling) animation towards it.
+     */
+    private void computeSnapScroll(int velocity) {
+        SnapAnchors anchors = getAnchors();
+        int offset = predictFinalOffset(getScrollOffset(), -velocity, anchors.getMinScroll(), anchors.getMaxScroll());
+        mMetrics.onFlingPredicted(getScrollOffset(), offset);
+        int pageCount = getPageCount();
+        if (pageCount > 0 && mOffsetIndex.getPageCount() == pageCount && getContentSize() > 0) {
+            int decision = mSnapDecision.decide(anchors, getScrollOffset(), offset, velocity, mMinimumVelocity);
+            if (decision == SnapDecisionEngine.DECISION_FLING) {
+                fling(-velocity);
+            } else {
+                snapTo(mSnapDecision.getTargetOffset(), Math.abs(velocity));
+            }
+        }
+    }
+
+    /**
+     * @param velocity current absolute velocity along the scroll axis, 0 when at rest
+     */
+    private void snapTo(int offset, float velocity) {
+        int distance = offset - getScrollOffset();
+        int duration = SnapAnimator.computeSnapDuration(distance, velocity, getViewportSize(), DEFAULT_DURATION);
+        mMetrics.onSnapStart(getScrollOffset(), offset);
+        mAbsorbVelocity = 0;
+        mAnimator.snap(getScrollOffset(), offset, duration);
+        updateSettleState();
+        prefetchSettlePage(offset);
+    }
+
+    /**
+     * Flings the content along the scroll axis with the given velocity in pixels per second.
+     */
+    public void fling(int velocity) {
+        if (getPageCount() > 0) {
+            int start = getScrollOffset();
+            mAnimator.fling(start, velocity, getAnchors().getMinScroll(), getAnchors().getMaxScroll());
+            int unbounded = mFlingPhysics.getFinalOffset(start, velocity, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            int overshoot = Math.abs(unbounded - mAnimator.getFinal());
+            mAbsorbVelocity = overshoot > 0 ? Math.signum(velocity) * mFlingPhysics.getVelocityForDistance(overshoot) : 0;
+            if (!snap) {
+                mMetrics.onFlingPredicted(start, mAnimator.getFinal());
+            }
+            mMetrics.onSnapStart(start, mAnimator.getFinal());
+            updateSettleState();
+            prefetchSettlePage(mAnimator.getFinal());
+        }
+    }
+
+    /**
+     * Reports the page an animation towards offset is going to settle on and queues it,
+     * followed by its neighbours, for prefetching in idle frame time.
+     */
+    private void prefetchSettlePage(int offset) {
+        int count = getPageCount();
+        if (count == 0 || mOffsetIndex.getPageCount() != count || (mAdapter == null && mPrefetchListener == null)) {
+            return;
+        }
+        int scroll = Math.max(0, getScrollOffset());
+        int target = Math.max(0, offset);
+        int settlePage = getPageAt(offset);
+        int firstPage = mOffsetIndex.findPageAt(Math.min(scroll, target));
+        int lastPage = mOffsetIndex.findPageAt(Math.max(scroll, target) + Math.max(0, getViewportSize() - 1));
+        if (mPrefetchListener != null) {
+            mPrefetchListener.onSettlePagePredicted(settlePage, firstPage, lastPage);
+        }
+        mPrefetcher.clear();
+        mPrefetcher.add(settlePage);
+        for (int i = 1; i <= mRecycler.getOffscreenPageLimit(); i++) {
+            if (settlePage + i < count) {
+                mPrefetcher.add(settlePage + i);
+            }
+            if (settlePage - i >= 0) {
+                mPrefetcher.add(settlePage - i);
+            }
+        }
+    }
+
+    /**
+     * Predicts where a fling along the scroll axis comes to rest, pinned to [min, max]. The
+     * remaining velocity of a running fling in the same direction is taken into account.
+     */
+    int predictFinalOffset(int start, int velocity, int min, int max) {
+        float currentVelocity = 0;
+        if (!mAnimator.isFinished()) {
+            currentVelocity = Math.signum(mAnimator.getFinal() - mAnimator.getStart()) * mAnimator.getCurrVelocity();
+        }
+        return mFlingPhysics.getFinalOffset(start, velocity, currentVelocity, min, max);
+    }
+
+    public double getSplineFlingDistance(float velocity) {
+        return mFlingPhysics.getSplineFlingDistance(velocity);
+    }
+
+    private void endDrag() {
+        mIsBeingDragged = false;
+        isDrag = false;
+        releaseEdgeGlows();
+        recycleVelocityTracker();
+        stopNestedScroll();
+    }
+
+    /**
+     * Snaps to the closest page when the content was left part way between two pages.
+     */
+    private void settleToCurrentPage() {
+        if (snap && mOffsetIndex.getPageCount() > 0 && mAnimator.isFinished()) {
+            snapTo(getPageSnapOffset(mCurrentPage), 0);
+        }
+    }
+
+    /**
+     * Scrolls by delta without leaving the scroll range.
+     *
+     * @return the part of delta that was scrolled.
+     */
+    private int scrollWithinRange(int delta) {
+        int scroll = getScrollOffset();
+        int target = Math.max(getAnchors().getMinScroll(), Math.min(scroll + delta, getAnchors().getMaxScroll()));
+        scrollToOffset(target);
+        return target - scroll;
+    }
+
+    private int getNestedScrollAxis() {
+        return isVertical() ? ViewCompat.SCROLL_AXIS_VERTICAL : ViewCompat.SCROLL_AXIS_HORIZONTAL;
+    }
+
+    private int getAxisValue(int[] values) {
+        return isVertical() ? values[1] : values[0];
+    }
+
+    // NestedScrollingChild
+
+    @Override
+    public void setNestedScrollingEnabled(boolean enabled) {
+        mChildHelper.setNestedScrollingEnabled(enabled);
+    }
+
+    @Override
+    public boolean isNestedScrollingEnabled() {
+        return mChildHelper.isNestedScrollingEnabled();
+    }
+
+    @Override
+    public boolean startNestedScroll(int axes) {
+        return mChildHelper.startNestedScroll(axes);
+    }
+
+    @Override
+    public void stopNestedScroll() {
+        mChildHelper.stopNestedScroll();
+    }
+
+    @Override
+    public boolean hasNestedScrollingParent() {
+        return mChildHelper.hasNestedScrollingParent();
+    }
+
+    @Override
+    public boolean dispatchNestedScroll(int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int[] offsetInWindow) {
+        return mChildHelper.dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, offsetInWindow);
+    }
+
+    @Override
+    public boolean dispatchNestedPreScroll(int dx, int dy, int[] consumed, int[] offsetInWindow) {
+        return mChildHelper.dispatchNestedPreScroll(dx, dy, consumed, offsetInWindow);
+    }
+
+    @Override
+    public boolean dispatchNestedFling(float velocityX, float velocityY, boolean consumed) {
+        return mChildHelper.dispatchNestedFling(velocityX, velocityY, consumed);
+    }
+
+    @Override
+    public boolean dispatchNestedPreFling(float velocityX, float velocityY) {
+        return mChildHelper.dispatchNestedPreFling(velocityX, velocityY);
+    }
+
+    // NestedScrollingParent
+
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        return (nestedScrollAxes & getNestedScrollAxis()) != 0;
+    }
+
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int nestedScrollAxes) {
+        mParentHelper.onNestedScrollAccepted(child, target, nestedScrollAxes);
+        startNestedScroll(getNestedScrollAxis());
+        // only one view animates at a time, the child drives the scroll from now on
+        if (!mAnimator.isFinished()) {
+            mAnimator.abort();
+            mMetrics.onSettled(getScrollOffset(), true);
+        }
+    }
+
+    @Override
+    public void onStopNestedScroll(View target) {
+        mParentHelper.onStopNestedScroll(target);
+        stopNestedScroll();
+        settleToCurrentPage();
+        updateSettleState();
+    }
+
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        int delta = isVertical() ? dyUnconsumed : dxUnconsumed;
+        int consumed = scrollWithinRange(delta);
+        int unconsumed = delta - consumed;
+        dispatchNestedScroll(isVertical() ? 0 : consumed, isVertical() ? consumed : 0,
+                isVertical() ? dxUnconsumed : unconsumed, isVertical() ? unconsumed : dyUnconsumed, null);
+    }
+
+    /**
+     * Parents get the first pick, then a page left part way between two pages is brought
+     * into place before the nested child gets to scroll.
+     */
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        if (dispatchNestedPreScroll(dx, dy, mParentConsumed, null)) {
+            consumed[0] += mParentConsumed[0];
+            consumed[1] += mParentConsumed[1];
+        }
+        int delta = isVertical() ? dy - consumed[1] : dx - consumed[0];
+        if (delta == 0 || mScrolledPageOffset == 0 || mOffsetIndex.getPageCount() == 0) {
+            return;
+        }
+        int scroll = getScrollOffset();
+        if (delta > 0) {
+            int next = Math.min(mScrolledPage + 1, mOffsetIndex.getPageCount() - 1);
+            delta = Math.min(delta, Math.max(0, getPageSnapOffset(next) - scroll));
+        } else {
+            delta = Math.max(delta, Math.min(0, getPageSnapOffset(mScrolledPage) - scroll));
+        }
+        int scrolled = scrollWithinRange(delta);
+        if (isVertical()) {
+            consumed[1] += scrolled;
+        } else {
+            consumed[0] += scrolled;
+        }
+    }
+
+    @Override
+    public boolean onNestedFling(View target, float velocityX, float velocityY, boolean consumed) {
+        if (consumed) {
+            return dispatchNestedFling(velocityX, velocityY, true);
+        }
+        int velocity = (int) (isVertical() ? velocityY : velocityX);
+        if (snap) {
+            computeSnapScroll(-velocity);
+        } else {
+            fling(velocity);
+        }
+        dispatchNestedFling(velocityX, velocityY, true);
+        return true;
+    }
+
+    /**
+     * Takes a fling from a nested child while a page is still part way in place, so the
+     * page settles instead of both views animating.
+     */
+    @Override
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        if (dispatchNestedPreFling(velocityX, velocityY)) {
+            return true;
+        }
+        if (snap && mScrolledPageOffset != 0) {
+            computeSnapScroll(-(int) (isVertical() ? velocityY : velocityX));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return mParentHelper.getNestedScrollAxes();
+    }
+
+    private void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    private void initVelocityTracker() {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnPreDrawListener(mTransformPages);
+        if (mPageInflater != null) {
+            mPageInflater.start();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // far pages are not children right now, so they missed the window detach just
+        // dispatched to the children; finish it for them and take them back as children so
+        // the next attach reaches them as well
+        List<View> detached = mDetacher.getDetachedPages();
+        for (int i = 0; i < detached.size(); i++) {
+            removeDetachedView(detached.get(i), false);
+        }
+        mDetacher.reattachAll();
+        getViewTreeObserver().removeOnPreDrawListener(mTransformPages);
+        if (mPageInflater != null) {
+            mPageInflater.stop();
+        }
+        mAnimator.abort();
+        mPendingFocusPage = -1;
+        mPrefetcher.clear();
+        mMetrics.cancel();
+        mChildHelper.onDetachedFromWindow();
+        if (mLazyLayoutScheduled) {
+            // picked up again by the next layout
+            Looper.myQueue().removeIdleHandler(mLazyLayoutStep);
+            mLazyLayoutScheduled = false;
+        }
+        mPageChange.onScrollStateChanged(SCROLL_STATE_IDLE);
+        mPageChange.cancel();
+    }
+
+    private boolean inChild(int x, int y) {
+        if (getPageCount() > 0) {
+            int offset = isVertical() ? y + getScrollY() - getPaddingTop() : x + getScrollX() - getPaddingLeft();
+            return offset >= 0 && offset < getContentSize();
+        }
+        return false;
+    }
+
+    private boolean isVertical() {
+        return mScrollMode != HORIZONTAL;
+    }
+
+    private int getMotionPos(MotionEvent ev, int pointerIndex) {
+        return (int) (isVertical() ? ev.getY(pointerIndex) : ev.getX(pointerIndex));
+    }
+
+    private int getScrollOffset() {
+        return isVertical() ? getScrollY() : getScrollX();
+    }
+
+    private void scrollToOffset(int offset) {
+        if (isVertical()) {
+            scrollTo(getScrollX(), offset);
+        } else {
+            scrollTo(offset, getScrollY());
+        }
+    }
+
+    private int getViewportSize() {
+        return isVertical() ? getHeight() - getPaddingTop() - getPaddingBottom()
+                : getWidth() - getPaddingLeft() - getPaddingRight();
+    }
+
+    private int getContentSize() {
+        return isVertical() ? mMaximumHeight : mMaximumWidth;
+    }
+
+    private int getScrollRange() {
+        int scrollRange = 0;
+        if (getPageCount() > 0) {
+            scrollRange = Math.max(0, getContentSize() - getViewportSize());
+        }
+        return scrollRange;
+    }
+
+    /**
+     * @return the snap anchors of the pages, recomputed only when the page offsets, the
+     * viewport, the alignment or the peek changed.
+     */
+    private SnapAnchors getAnchors() {
+        int viewport = getViewportSize();
+        mAnchors.update(mOffsetIndex, viewport, mSnapAlignment, viewport * mPeekPercent / 100);
+        return mAnchors;
+    }
+
+    /**
+     * @return the last page whose snap position is at or before the given scroll offset.
+     */
+    private int getPageAt(int offset) {
+        return Math.max(0, getAnchors().findAnchorAt(offset));
+    }
+
+    /**
+     * Switches the view to adapter mode. Child views declared in xml are removed and
+     * pages are created through the adapter as they come close to the viewport.
+     */
+    public void setAdapter(SnapAdapter adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterDataSetObserver(mAdapterObserver);
+        }
+        mPrefetcher.clear();
+        cancelPageInflation();
+        mRecycler.setAdapter(adapter);
+        mAdapter = adapter;
+        removeAllViews();
+        mChildHeight = 0;
+        mChildWidth = 0;
+        mOffsetIndex.clear();
+        mOffsetIndex.setEstimatedPageSize(0);
+        mFirstAttachedPage = -1;
+        mLastAttachedPage = -1;
+        if (adapter != null) {
+            adapter.registerDataSetObserver(mAdapterObserver);
+        }
+        requestLayout();
+    }
+
+    public SnapAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    /**
+     * Replaces the pages with the given layouts, inflated on a background thread. Until a
+     * page arrives, an empty placeholder of the given size stands in for it, so the size
+     * along the scroll axis should be exact. The current page is inflated first, followed
+     * by the pages closest to it, and the visible page keeps its position when a page
+     * before it arrives with a different size.
+     */
+    public void setPageLayouts(int[] layouts, int placeholderWidth, int placeholderHeight) {
+        if (mAdapter != null) {
+            setAdapter(null);
+        }
+        cancelPageInflation();
+        removeAllViews();
+        mPagePlaceholders = new View[layouts.length];
+        for (int i = 0; i < layouts.length; i++) {
+            View placeholder = new View(getContext());
+            mPagePlaceholders[i] = placeholder;
+            addView(placeholder, new MarginLayoutParams(placeholderWidth, placeholderHeight));
+        }
+        if (mPageInflater == null) {
+            mPageInflater = new AsyncPageInflater(this, new AsyncPageInflater.Callback() {
+                @Override
+                public int getCurrentPage() {
+                    return mCurrentPage;
+                }
+
+                @Override
+                public void onPageInflated(int position, View page) {
+                    replacePlaceholder(position, page);
+                }
+            });
+        }
+        mPageInflater.submit(layouts);
+    }
+
+    /**
+     * @return number of pages passed to {@link #setPageLayouts} that are not inflated yet.
+     */
+    public int getPendingPageCount() {
+        return mPageInflater != null ? mPageInflater.getPendingCount() : 0;
+    }
+
+    private void cancelPageInflation() {
+        if (mPageInflater != null) {
+            mPageInflater.cancel();
+        }
+        mPagePlaceholders = null;
+    }
+
+    private void replacePlaceholder(int position, View page) {
+        if (mPagePlaceholders == null) {
+            return;
+        }
+        mDetacher.reattachAll();
+        int index = indexOfChild(mPagePlaceholders[position]);
+        mPagePlaceholders[position] = null;
+        if (index < 0) {
+            // the app removed the placeholder
+            return;
+        }
+        if (index <= mScrolledPage && mAnimator.isFinished() && mRestoredPage < 0) {
+            // keep the visible page in place through the restore path of the next layout
+            mRestoredPage = mScrolledPage;
+            mRestoredPageOffset = mScrolledPageOffset;
+        }
+        removeViewAt(index);
+        addView(page, index);
+    }
+
+    /**
+     * Sets the pool adapter pages are recycled into. Snap views whose adapters create the
+     * same view types can share one pool, so pages leaving one view are reused by another.
+     */
+    public void setRecycledViewPool(RecycledViewPool pool) {
+        mRecycler.setPool(pool);
+        mFirstAttachedPage = -1;
+        mLastAttachedPage = -1;
+        requestLayout();
+    }
+
+    public RecycledViewPool getRecycledViewPool() {
+        return mRecycler.getPool();
+    }
+
+    /**
+     * Sets the number of adapter pages kept attached on each side of the viewport.
+     */
+    public void setOffscreenPageLimit(int limit) {
+        mRecycler.setOffscreenPageLimit(limit);
+        mFirstAttachedPage = -1;
+        mLastAttachedPage = -1;
+        requestLayout();
+    }
+
+    public int getOffscreenPageLimit() {
+        return mRecycler.getOffscreenPageLimit();
+    }
+
+    /**
+     * Sets a listener told where each fling or snap will settle, and asked to prefetch the
+     * pages around it during idle frame time.
+     */
+    public void setOnPagePrefetchListener(OnPagePrefetchListener listener) {
+        mPrefetchListener = listener;
+    }
+
+    /**
+     * Sets the time in milliseconds each frame may spend on prefetching pages after it has
+     * been drawn. 0 turns prefetching off.
+     */
+    public void setPrefetchFrameBudget(int millis) {
+        mPrefetcher.setFrameBudget(millis);
+    }
+
+    public int getPrefetchFrameBudget() {
+        return mPrefetcher.getFrameBudget();
+    }
+
+    /**
+     * Sets a listener receiving drag, fling prediction and snap events along with frame
+     * timing of every gesture. Frames are only sampled while a listener is set.
+     */
+    public void setSnapMetricsListener(SnapMetricsListener listener) {
+        mMetrics.setListener(listener);
+    }
+
+    public SnapMetricsListener getSnapMetricsListener() {
+        return mMetrics.getListener();
+    }
+
+    /**
+     * Detaches the xml declared pages that are more than distance pages away from the
+     * viewport, so they are neither drawn nor traversed. They are attached back with their
+     * previous layout once they come into range. Pass a negative value to keep every page
+     * attached, which is the default. Adapter pages are recycled instead and ignore this.
+     */
+    public void setDetachPageDistance(int distance) {
+        mDetacher.setDetachDistance(distance);
+        requestLayout();
+    }
+
+    public int getDetachPageDistance() {
+        return mDetacher.getDetachDistance();
+    }
+
+    /**
+     * @return the page closest to the snap position of the current scroll offset.
+     */
+    public int getCurrentPage() {
+        return mCurrentPage;
+    }
+
+    /**
+     * Opens the view at the given page. Called before the first layout, only that page and
+     * its neighbours are measured and laid out before the first frame, the pages before it
+     * are placed by their declared or estimated sizes, and the remaining pages are measured
+     * and laid out in idle time, so the time to the first frame does not grow with the
+     * number of pages. Afterwards it is the same as {@link #scrollToPage(int)}.
+     */
+    public void setInitialPage(int page) {
+        scrollToPage(page);
+    }
+
+    /**
+     * Same as {@link #scrollToPage(int)}.
+     */
+    public void setCurrentPage(int mCurrentPage) {
+        scrollToPage(mCurrentPage);
+    }
+
+    /**
+     * Jumps to the snap position of the given page without animating. Only the pages around
+     * the target are attached and drawn, the pages in between are skipped. Called before the
+     * first layout, the view opens at the page, see {@link #setInitialPage(int)}.
+     */
+    public void scrollToPage(int page) {
+        if (mOffsetIndex.getPageCount() == 0) {
+            // picked up by the first layout
+            mRestoredPage = Math.max(0, page);
+            mRestoredPageOffset = 0;
+            mRestoredAnimating = false;
+            requestLayout();
+            return;
+        }
+        page = Math.max(0, Math.min(page, mOffsetIndex.getPageCount() - 1));
+        mAnimator.abort();
+        mPrefetcher.clear();
+        scrollToOffset(getPageSnapOffset(page));
+        updateSettleState();
+    }
+
+    /**
+     * Animates to the snap position of the given page. Far away targets are jumped to first,
+     * so only the last pages are animated, and the duration follows the distance left and
+     * the velocity of a running animation.
+     */
+    public void smoothScrollToPage(int page) {
+        if (mOffsetIndex.getPageCount() == 0) {
+            return;
+        }
+        page = Math.max(0, Math.min(page, mOffsetIndex.getPageCount() - 1));
+        float velocity = mAnimator.getCurrVelocity();
+        if (page - mCurrentPage > SMOOTH_SCROLL_PAGE_LIMIT) {
+            mAnimator.abort();
+            scrollToOffset(getPageSnapOffset(page - SMOOTH_SCROLL_PAGE_LIMIT));
+        } else if (mCurrentPage - page > SMOOTH_SCROLL_PAGE_LIMIT) {
+            mAnimator.abort();
+            scrollToOffset(getPageSnapOffset(page + SMOOTH_SCROLL_PAGE_LIMIT));
+        }
+        snapTo(getPageSnapOffset(page), velocity);
+    }
+
+    /**
+     * @return scroll offset at which the given page is snapped into place.
+     */
+    private int getPageSnapOffset(int page) {
+        return mSnapDecision.getGroupSnapOffset(getAnchors(), page);
+    }
+
+    /**
+     * Lets a drag move the content past its first and last page, springing back on release,
+     * which is the default. When off, the content stops at its bounds and only the edge glow
+     * (see {@link #setOverScrollMode(int)}) shows the pull, so frames at the bounds only
+     * redraw the glow.
+     */
+    public void setContentOverScrollEnabled(boolean enabled) {
+        mContentOverScroll = enabled;
+    }
+
+    public boolean isContentOverScrollEnabled() {
+        return mContentOverScroll;
+    }
+
+    /**
+     * Sets a transformer applied to the pages in and next to the viewport once per frame
+     * while the content scrolls. Pass null to stop transforming, pages keep the properties
+     * they were last given.
+     */
+    public void setPageTransformer(PageTransformer transformer) {
+        mPageTransformer = transformer;
+        mTransformPending = transformer != null;
+        invalidate();
+    }
+
+    public PageTransformer getPageTransformer() {
+        return mPageTransformer;
+    }
+
+    public void addOnPageChangeListener(OnPageChangeListener listener) {
+        mPageChange.addListener(listener);
+    }
+
+    public void removeOnPageChangeListener(OnPageChangeListener listener) {
+        mPageChange.removeListener(listener);
+    }
+
+    public void clearOnPageChangeListeners() {
+        mPageChange.clearListeners();
+    }
+
+    /**
+     * @return one of the SCROLL_STATE_ constants.
+     */
+    public int getScrollState() {
+        return mPageChange.getScrollState();
+    }
+
+    public int getChildRightMargin() {
+        return childRightMargin;
+    }
+
+    public void setChildRightMargin(int childRightMargin) {
+        this.childRightMargin = childRightMargin;
+        updateChildMargins();
+    }
+
+    public int getChildLeftMargin() {
+        return childLeftMargin;
+    }
+
+    public void setChildLeftMargin(int childLeftMargin) {
+        this.childLeftMargin = childLeftMargin;
+        updateChildMargins();
+    }
+
+    public int getChildBottomMargin() {
+        return childBottomMargin;
+    }
+
+    public void setChildBottomMargin(int childBottomMargin) {
+        this.childBottomMargin = childBottomMargin;
+        updateChildMargins();
+    }
+
+    public int getChildTopMargin() {
+        return childTopMargin;
+    }
+
+    public void setChildTopMargin(int childTopMargin) {
+        this.childTopMargin = childTopMargin;
+        updateChildMargins();
+    }
+
+    public void setChildMargins(int left, int top, int right, int bottom) {
+        childLeftMargin = left;
+        childTopMargin = top;
+        childRightMargin = right;
+        childBottomMargin = bottom;
+        updateChildMargins();
+    }
+
+    private void updateChildMargins() {
+        mLayoutEngine.setChildMargins(childLeftMargin, childTopMargin, childRightMargin, childBottomMargin);
+        requestLayout();
+    }
+
+    public int getPageHeight() {
+        return mPageHeight;
+    }
+
+    public void setPageHeight(int mPageHeight) {
+        this.mPageHeight = mPageHeight;
+        invalidate();
+    }
+
+    public int getPageWidth() {
+        return mPageWidth;
+    }
+
+    public void setPageWidth(int mPageWidth) {
+        this.mPageWidth = mPageWidth;
+        invalidate();
+    }
+
+    public int getMaximumHeight() {
+        return mMaximumHeight;
+    }
+
+    public void setMaximumHeight(int mMaximumHeight) {
+        this.mMaximumHeight = mMaximumHeight;
+        invalidate();
+    }
+
+    public int getMaximumWidth() {
+        return mMaximumWidth;
+    }
+
+    public int getChildHeight() {
+        return mChildHeight;
+    }
+
+    public void setChildHeight(int mChildHeight) {
+        this.mChildHeight = mChildHeight;
+        invalidate();
+    }
+
+    public int getChildWidth() {
+        return mChildWidth;
+    }
+
+    /**
+     * Sets the curve of snap animations to one of the SnapInterpolator.CURVE_ constants.
+     */
+    public void setSnapCurve(int curve) {
+        setSnapInterpolator(SnapInterpolator.forCurve(curve));
+    }
+
+    public void setSnapInterpolator(Interpolator interpolator) {
+        mAnimator.setInterpolator(interpolator);
+    }
+
+    /**
+     * Sets where pages come to rest in the viewport, one of {@link #SNAP_ALIGN_START},
+     * {@link #SNAP_ALIGN_CENTER} or {@link #SNAP_ALIGN_END}. Vertical views default to start,
+     * horizontal views to center.
+     */
+    public void setSnapAlignment(int alignment) {
+        if (alignment != SNAP_ALIGN_CENTER && alignment != SNAP_ALIGN_END) {
+            alignment = SNAP_ALIGN_START;
+        }
+        if (mSnapAlignment != alignment) {
+            mSnapAlignment = alignment;
+            resnapCurrentPage();
+        }
+    }
+
+    public int getSnapAlignment() {
+        return mSnapAlignment;
+    }
+
+    /**
+     * Leaves the given percentage of the viewport for the previous page with start alignment,
+     * or for the next page with end alignment, so a part of it stays visible. Centred pages
+     * show their neighbours through the space around them and ignore this.
+     */
+    public void setPeekPercent(int percent) {
+        percent = Math.max(0, Math.min(percent, 100));
+        if (mPeekPercent != percent) {
+            mPeekPercent = percent;
+            resnapCurrentPage();
+        }
+    }
+
+    public int getPeekPercent() {
+        return mPeekPercent;
+    }
+
+    /**
+     * Snaps pages in groups of the given size, e.g. the cards of a carousel that shows
+     * several at once. Every fling settles on the first page of a group. The default is 1.
+     */
+    public void setSnapPageGroupSize(int groupSize) {
+        if (mSnapDecision.getGroupSize() != Math.max(1, groupSize)) {
+            mSnapDecision.setGroupSize(groupSize);
+            resnapCurrentPage();
+        }
+    }
+
+    public int getSnapPageGroupSize() {
+        return mSnapDecision.getGroupSize();
+    }
+
+    /**
+     * Limits how many pages a single fling can advance, counted from the page the drag was
+     * released on and rounded down to whole groups, but at least one group. 0 removes the
+     * limit, which is the default.
+     */
+    public void setMaxPagesPerFling(int maxPages) {
+        mSnapDecision.setMaxPagesPerFling(maxPages);
+    }
+
+    public int getMaxPagesPerFling() {
+        return mSnapDecision.getMaxPagesPerFling();
+    }
+
+    /**
+     * Moves the current page to its snap position after the anchors or page groups changed.
+     */
+    private void resnapCurrentPage() {
+        if (mOffsetIndex.getPageCount() > 0 && mAnimator.isFinished()) {
+            scrollToOffset(getPageSnapOffset(Math.min(mCurrentPage, mOffsetIndex.getPageCount() - 1)));
+        }
+        requestLayout();
+    }
+
+    public boolean isSnap() {
+        return snap;
+    }
+
+    public void setSnap(boolean snap) {
+        this.snap = snap;
+    }
+
+    public int getScrollMode() {
+        return mScrollMode;
+    }
+
+    /**
+     * @param mScrollMode {@link #VERTICAL} or {@link #HORIZONTAL}
+     */
+    public void setScrollMode(int mScrollMode) {
+        this.mScrollMode = mScrollMode;
+        mLayoutEngine.setVertical(isVertical());
+        requestLayout();
+    }
+
+    /**
+     * Scroll position of a snap view: the page at the snap position, the offset into that
+     * page and whether an animation was running.
+     */
+    static class SavedState extends BaseSavedState {
+
+        int page;
+        int pageOffset;
+        boolean animating;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            page = in.readInt();
+            pageOffset = in.readInt();
+            animating = in.readInt() != 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(page);
+            out.writeInt(pageOffset);
+            out.writeInt(animating ? 1 : 0);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Fling distance, duration and position curve of the framework's OverScroller spline,
+ * with every constant computed once per screen density and scroll friction.
+ * <p>
+ * The fling distance is a power of the velocity, so it is sampled into a table up to the
+ * maximum fling velocity and interpolated linearly. Velocities above the table fall back
+ * to the closed form.
+ */
+final class FlingPhysics {
+
+    // same constants as android.widget.OverScroller
+    private static final float GRAVITY_EARTH = 9.80665f;
+    private static final float INFLEXION = 0.35f;
+    private static final float START_TENSION = 0.5f;
+    private static final float END_TENSION = 1.0f;
+    private static final float P1 = START_TENSION * INFLEXION;
+    private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+    private static final double DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+
+    private static final int NB_SAMPLES = 100;
+    private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
+
+    static final int DISTANCE_SAMPLES = 256;
+    private static final float DEFAULT_MAX_VELOCITY_DP = 8000;
+
+    private static FlingPhysics sCached;
+
+    static {
+        float xMin = 0.0f;
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            final float alpha = (float) i / NB_SAMPLES;
+            float xMax = 1.0f;
+            float x, tx, coef;
+            while (true) {
+                x = xMin + (xMax - xMin) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) {
+                    break;
+                }
+                if (tx > alpha) {
+                    xMax = x;
+                } else {
+                    xMin = x;
+                }
+            }
+            SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+        }
+        SPLINE_POSITION[NB_SAMPLES] = 1.0f;
+    }
+
+    private final float mDensity;
+    private final float mFriction;
+    private final double mFrictionCoef;
+    private final double mDistanceExponent;
+    private final double mDurationExponent;
+    private final float mMaxTableVelocity;
+    private final float mVelocityStep;
+    private final float[] mDistances = new float[DISTANCE_SAMPLES + 1];
+
+    /**
+     * @param density  display density, as in DisplayMetrics.density
+     * @param friction scroll friction, as in ViewConfiguration.getScrollFriction()
+     */
+    FlingPhysics(float density, float friction) {
+        mDensity = density;
+        mFriction = friction;
+        double physicalCoef = GRAVITY_EARTH * 39.37 * (density * 160.0f) * 0.84;
+        mFrictionCoef = friction * physicalCoef;
+        mDistanceExponent = DECELERATION_RATE / (DECELERATION_RATE - 1.0);
+        mDurationExponent = 1.0 / (DECELERATION_RATE - 1.0);
+        mMaxTableVelocity = DEFAULT_MAX_VELOCITY_DP * Math.max(density, 1.0f);
+        mVelocityStep = mMaxTableVelocity / DISTANCE_SAMPLES;
+        for (int i = 1; i <= DISTANCE_SAMPLES; i++) {
+            mDistances[i] = (float) computeSplineFlingDistance(i * mVelocityStep);
+        }
+    }
+
+    /**
+     * @return a shared instance for the density and friction, reused while they do not change.
+     */
+    static FlingPhysics get(float density, float friction) {
+        FlingPhysics physics = sCached;
+        if (physics == null || physics.mDensity != density || physics.mFriction != friction) {
+            physics = new FlingPhysics(density, friction);
+            sCached = physics;
+        }
+        return physics;
+    }
+
+    /**
+     * @return total distance travelled by a fling started with velocity, in pixels.
+     */
+    double getSplineFlingDistance(float velocity) {
+        float v = Math.abs(velocity);
+        if (v >= mMaxTableVelocity) {
+            return computeSplineFlingDistance(v);
+        }
+        float index = v / mVelocityStep;
+        int i = (int) index;
+        return mDistances[i] + (index - i) * (mDistances[i + 1] - mDistances[i]);
+    }
+
+    /**
+     * @return duration of a fling started with velocity, in milliseconds.
+     */
+    int getSplineFlingDuration(float velocity) {
+        double splineDeceleration = getSplineDeceleration(velocity);
+        return (int) (1000.0 * Math.exp(splineDeceleration * mDurationExponent));
+    }
+
+    /**
+     * @return duration of the fling that travels exactly distance, in milliseconds.
+     */
+    int getSplineFlingDurationForDistance(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        // inverse of computeSplineFlingDistance gives the spline deceleration for the distance
+        double splineDeceleration = Math.log(distance / mFrictionCoef) / mDistanceExponent;
+        return (int) (1000.0 * Math.exp(splineDeceleration * mDurationExponent));
+    }
+
+    /**
+     * @return velocity of a fling that travels exactly distance, in pixels per second. This
+     * is also the velocity a longer fling still has distance pixels before it comes to rest.
+     */
+    float getVelocityForDistance(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        double splineDeceleration = Math.log(distance / mFrictionCoef) / mDistanceExponent;
+        return (float) (mFrictionCoef / INFLEXION * Math.exp(splineDeceleration));
+    }
+
+    /**
+     * @return slope of the spline position curve at the given fraction of the duration. The
+     * velocity of a fling is this coefficient times distance / duration.
+     */
+    static float getSplineVelocityCoef(float t) {
+        if (t < 0 || t >= 1) {
+            return 0;
+        }
+        final int index = (int) (NB_SAMPLES * t);
+        return (SPLINE_POSITION[index + 1] - SPLINE_POSITION[index]) * NB_SAMPLES;
+    }
+
+    /**
+     * @return fraction of the fling distance covered after the given fraction of its duration.
+     */
+    static float getSplinePosition(float t) {
+        if (t <= 0) {
+            return 0;
+        }
+        if (t >= 1) {
+            return 1;
+        }
+        final int index = (int) (NB_SAMPLES * t);
+        final float tInf = (float) index / NB_SAMPLES;
+        final float tSup = (float) (index + 1) / NB_SAMPLES;
+        final float dInf = SPLINE_POSITION[index];
+        final float dSup = SPLINE_POSITION[index + 1];
+        return dInf + (t - tInf) / (tSup - tInf) * (dSup - dInf);
+    }
+
+    /**
+     * Predicts where a fling along one axis comes to rest, pinned to [min, max]. When a fling
+     * in the same direction is still running, its remaining velocity is added as OverScroller does.
+     *
+     * @param currentVelocity velocity of the running fling along this axis, 0 when idle
+     */
+    int getFinalOffset(int start, int velocity, float currentVelocity, int min, int max) {
+        float v = velocity;
+        if (currentVelocity != 0 && Math.signum(velocity) == Math.signum(currentVelocity)) {
+            v += currentVelocity;
+        }
+        double distance = getSplineFlingDistance(v);
+        int finalOffset = start + (int) Math.round(distance * Math.signum(v));
+        finalOffset = Math.min(finalOffset, max);
+        finalOffset = Math.max(finalOffset, min);
+        return finalOffset;
+    }
+
+    private double getSplineDeceleration(float velocity) {
+        return Math.log(INFLEXION * Math.abs(velocity) / mFrictionCoef);
+    }
+
+    double computeSplineFlingDistance(float velocity) {
+        if (velocity == 0) {
+            return 0;
+        }
+        return mFrictionCoef * Math.exp(mDistanceExponent * getSplineDeceleration(velocity));
+    }
+}
@@ -0,0 +1,31 @@
+package com.santhosh.snapscrollview;
+
+import android.view.Choreographer;
+
+/**
+ * Posts and removes the frame callback of one helper of a snap view. The Choreographer is
+ * only taken on the first post, which always happens on the UI thread, so the view itself
+ * can be constructed on any thread, e.g. by a background inflater.
+ */
+final class FrameScheduler {
+
+    private final Choreographer.FrameCallback mCallback;
+    private Choreographer mChoreographer;
+
+    FrameScheduler(Choreographer.FrameCallback callback) {
+        mCallback = callback;
+    }
+
+    void post() {
+        if (mChoreographer == null) {
+            mChoreographer = Choreographer.getInstance();
+        }
+        mChoreographer.postFrameCallback(mCallback);
+    }
+
+    void remove() {
+        if (mChoreographer != null) {
+            mChoreographer.removeFrameCallback(mCallback);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.santhosh.snapscrollview;
+
+import android.content.Context;
+import android.view.WindowManager;
+
+/**
+ * Frame interval of the default display, used to budget and measure per-frame work.
+ */
+final class FrameTiming {
+
+    private static final float DEFAULT_REFRESH_RATE = 60.0f;
+
+    private FrameTiming() {
+    }
+
+    /**
+     * @return duration of one frame in nanoseconds, assuming 60Hz when the display is unknown.
+     */
+    static long getFrameIntervalNanos(Context context) {
+        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        float refreshRate = windowManager != null ? windowManager.getDefaultDisplay().getRefreshRate() : 0;
+        if (refreshRate < 1) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        return (long) (1000000000L / refreshRate);
+    }
+}
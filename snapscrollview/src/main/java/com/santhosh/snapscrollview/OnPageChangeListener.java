@@ -0,0 +1,29 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Receives page changes and scroll state changes of a snap view. Calls are coalesced to at
+ * most one of each kind per frame and always report the latest state.
+ */
+public interface OnPageChangeListener {
+
+    /**
+     * Called when the scroll offset changed.
+     *
+     * @param position             page at the snap position of the current offset
+     * @param positionOffset       fraction of that page scrolled past the snap position, in [0, 1)
+     * @param positionOffsetPixels the same in pixels
+     */
+    void onPageScrolled(int position, float positionOffset, int positionOffsetPixels);
+
+    /**
+     * Called when the page closest to the snap position changed.
+     */
+    void onPageSelected(int position);
+
+    /**
+     * @param state one of {@link BaseSnapScrollView#SCROLL_STATE_IDLE},
+     *              {@link BaseSnapScrollView#SCROLL_STATE_DRAGGING} or
+     *              {@link BaseSnapScrollView#SCROLL_STATE_SETTLING}
+     */
+    void onScrollStateChanged(int state);
+}
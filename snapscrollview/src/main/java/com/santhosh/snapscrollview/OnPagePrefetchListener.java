@@ -0,0 +1,24 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Told where a fling or snap is going to settle as soon as the drag is released, so the
+ * pages about to be shown can be prepared (bound, inflated, images decoded) before they
+ * come into view.
+ */
+public interface OnPagePrefetchListener {
+
+    /**
+     * Called on release, before the animation starts.
+     *
+     * @param settlePage page the content is predicted to come to rest on
+     * @param firstPage  first page that will be shown on the way there
+     * @param lastPage   last page that will be shown on the way there
+     */
+    void onSettlePagePredicted(int settlePage, int firstPage, int lastPage);
+
+    /**
+     * Called during idle frame time for the settle page and its neighbours, settle page
+     * first. Keep the work of a single call short, the remaining pages follow on later frames.
+     */
+    void onPrefetchPage(int position);
+}
@@ -0,0 +1,123 @@
+package com.santhosh.snapscrollview;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Delivers page and scroll state changes to {@link OnPageChangeListener}s. Changes are
+ * only recorded when they happen and dispatched from the next Choreographer frame, so
+ * listeners get at most one call of each kind per frame no matter how often the view
+ * scrolled in between.
+ */
+final class PageChangeDispatcher implements Choreographer.FrameCallback {
+
+    private final FrameScheduler mFrames = new FrameScheduler(this);
+    private final ArrayList<OnPageChangeListener> mListeners = new ArrayList<>();
+
+    private boolean mScheduled;
+
+    private boolean mScrolled;
+    private int mPosition;
+    private float mPositionOffset;
+    private int mPositionOffsetPixels;
+
+    private int mSelectedPage = -1;
+    private int mDispatchedPage = -1;
+
+    private int mState = BaseSnapScrollView.SCROLL_STATE_IDLE;
+    private int mDispatchedState = BaseSnapScrollView.SCROLL_STATE_IDLE;
+
+    void addListener(OnPageChangeListener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    void removeListener(OnPageChangeListener listener) {
+        mListeners.remove(listener);
+    }
+
+    void clearListeners() {
+        mListeners.clear();
+        cancel();
+    }
+
+    void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+        mScrolled = true;
+        mPosition = position;
+        mPositionOffset = positionOffset;
+        mPositionOffsetPixels = positionOffsetPixels;
+        schedule();
+    }
+
+    void onPageSelected(int position) {
+        if (mSelectedPage != position) {
+            mSelectedPage = position;
+            schedule();
+        }
+    }
+
+    void onScrollStateChanged(int state) {
+        if (mState != state) {
+            mState = state;
+            schedule();
+        }
+    }
+
+    int getScrollState() {
+        return mState;
+    }
+
+    /**
+     * Drops pending changes, e.g. when the view is detached.
+     */
+    void cancel() {
+        if (mScheduled) {
+            mScheduled = false;
+            mFrames.remove();
+        }
+        mScrolled = false;
+        mDispatchedPage = mSelectedPage;
+        mDispatchedState = mState;
+    }
+
+    private void schedule() {
+        if (!mScheduled && !mListeners.isEmpty()) {
+            mScheduled = true;
+            mFrames.post();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mScheduled = false;
+        // leaving idle is reported before the scroll it caused, entering idle after it
+        boolean stateChanged = mDispatchedState != mState;
+        if (stateChanged && mState != BaseSnapScrollView.SCROLL_STATE_IDLE) {
+            dispatchScrollState();
+        }
+        if (mScrolled) {
+            mScrolled = false;
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onPageScrolled(mPosition, mPositionOffset, mPositionOffsetPixels);
+            }
+        }
+        if (mDispatchedPage != mSelectedPage) {
+            mDispatchedPage = mSelectedPage;
+            for (int i = 0; i < mListeners.size(); i++) {
+                mListeners.get(i).onPageSelected(mSelectedPage);
+            }
+        }
+        if (stateChanged && mState == BaseSnapScrollView.SCROLL_STATE_IDLE) {
+            dispatchScrollState();
+        }
+    }
+
+    private void dispatchScrollState() {
+        mDispatchedState = mState;
+        for (int i = 0; i < mListeners.size(); i++) {
+            mListeners.get(i).onScrollStateChanged(mState);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.santhosh.snapscrollview;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detaches the static (xml declared) pages of a snap view that are more than a given number
+ * of pages away from the viewport and attaches them back once they come into range. Pages
+ * are only detached from the parent, so they keep their measured size and layout position
+ * and re-attaching them does not need a new layout pass.
+ */
+final class PageDetacher {
+
+    interface Callback {
+        void attachPage(View page, int index);
+
+        void detachPage(View page);
+    }
+
+    static final int DETACH_DISABLED = -1;
+
+    private final ViewGroup mHost;
+    private final Callback mCallback;
+    private final ArrayList<View> mPages = new ArrayList<>();
+    // pages [mFirstAttached, mLastAttached] are attached, plus mKeptPage, which holds focus
+    // outside of that range, every other page is detached
+    private int mFirstAttached;
+    private int mLastAttached = -1;
+    private int mKeptPage = -1;
+    private int mDetachedCount;
+    private int mDetachDistance = DETACH_DISABLED;
+
+    PageDetacher(ViewGroup host, Callback callback) {
+        mHost = host;
+        mCallback = callback;
+    }
+
+    /**
+     * @param distance number of pages kept attached on each side of the viewport, or
+     *                 {@link #DETACH_DISABLED} to keep every page attached.
+     */
+    void setDetachDistance(int distance) {
+        mDetachDistance = distance < 0 ? DETACH_DISABLED : distance;
+        if (mDetachDistance == DETACH_DISABLED) {
+            reattachAll();
+        }
+    }
+
+    int getDetachDistance() {
+        return mDetachDistance;
+    }
+
+    boolean isEnabled() {
+        return mDetachDistance != DETACH_DISABLED;
+    }
+
+    /**
+     * Brings the page list in line with the children of the host. Children removed by the
+     * app are dropped, detached pages keep their slot. Only looks at the pages when the
+     * number of children changed.
+     */
+    void sync() {
+        if (mDetachedCount == 0) {
+            mPages.clear();
+            for (int i = 0; i < mHost.getChildCount(); i++) {
+                mPages.add(mHost.getChildAt(i));
+            }
+            mFirstAttached = 0;
+            mLastAttached = mPages.size() - 1;
+            mKeptPage = -1;
+            return;
+        }
+        if (mHost.getChildCount() == mPages.size() - mDetachedCount) {
+            return;
+        }
+        if (mKeptPage >= 0 && mPages.get(mKeptPage).getParent() != mHost) {
+            mPages.remove(mKeptPage);
+            if (mKeptPage < mFirstAttached) {
+                mFirstAttached--;
+                mLastAttached--;
+            }
+            mKeptPage = -1;
+        }
+        for (int i = mLastAttached; i >= mFirstAttached; i--) {
+            if (mPages.get(i).getParent() != mHost) {
+                mPages.remove(i);
+                mLastAttached--;
+                if (mKeptPage > i) {
+                    mKeptPage--;
+                }
+            }
+        }
+    }
+
+    int getPageCount() {
+        return mHost.getChildCount() + mDetachedCount;
+    }
+
+    View getPage(int position) {
+        return mPages.get(position);
+    }
+
+    /**
+     * @return every static page in order, attached or not, as of the last {@link #sync()}.
+     */
+    List<View> getPages() {
+        return mPages;
+    }
+
+    /**
+     * Keeps the pages in [first, last] attached and detaches every other page, except the
+     * page holding focus, which stays attached until focus leaves it. Only the pages
+     * entering or leaving the attached range are touched.
+     */
+    void update(int first, int last) {
+        if (!isEnabled()) {
+            return;
+        }
+        sync();
+        int newFirst = Math.max(0, first - mDetachDistance);
+        int newLast = Math.min(mPages.size() - 1, last + mDetachDistance);
+        int oldFirst = mFirstAttached;
+        int oldLast = mLastAttached;
+
+        int joined = -1;
+        if (mKeptPage >= 0) {
+            int kept = mKeptPage;
+            mKeptPage = -1;
+            if (kept >= newFirst && kept <= newLast) {
+                joined = kept;
+            } else if (mPages.get(kept).hasFocus()) {
+                mKeptPage = kept;
+            } else {
+                detach(kept);
+            }
+        }
+        for (int i = oldFirst; i <= Math.min(oldLast, newFirst - 1); i++) {
+            leave(i);
+        }
+        for (int i = Math.max(oldFirst, newLast + 1); i <= oldLast; i++) {
+            leave(i);
+        }
+
+        mFirstAttached = newFirst;
+        mLastAttached = newLast;
+        // every page of the range before i is attached by the time i is
+        int offset = mKeptPage >= 0 && mKeptPage < newFirst ? 1 : 0;
+        for (int i = newFirst; i <= Math.min(newLast, oldFirst - 1); i++) {
+            if (i != joined) {
+                attach(i, i - newFirst + offset);
+            }
+        }
+        for (int i = Math.max(newFirst, oldLast + 1); i <= newLast; i++) {
+            if (i != joined) {
+                attach(i, i - newFirst + offset);
+            }
+        }
+    }
+
+    private void leave(int position) {
+        if (mKeptPage < 0 && mPages.get(position).hasFocus()) {
+            mKeptPage = position;
+        } else {
+            detach(position);
+        }
+    }
+
+    private void detach(int position) {
+        mCallback.detachPage(mPages.get(position));
+        mDetachedCount++;
+    }
+
+    private void attach(int position, int index) {
+        mCallback.attachPage(mPages.get(position), index);
+        mDetachedCount--;
+    }
+
+    private boolean isAttached(int position) {
+        return (position >= mFirstAttached && position <= mLastAttached) || position == mKeptPage;
+    }
+
+    /**
+     * @return a new list of the pages that are detached right now.
+     */
+    List<View> getDetachedPages() {
+        ArrayList<View> detached = new ArrayList<>(mDetachedCount);
+        for (int i = 0; mDetachedCount > 0 && i < mPages.size(); i++) {
+            if (!isAttached(i)) {
+                detached.add(mPages.get(i));
+            }
+        }
+        return detached;
+    }
+
+    /**
+     * Attaches every detached page back in its original order.
+     */
+    void reattachAll() {
+        if (mDetachedCount == 0) {
+            return;
+        }
+        sync();
+        for (int i = 0; i < mPages.size(); i++) {
+            if (!isAttached(i)) {
+                attach(i, i);
+            }
+        }
+        mFirstAttached = 0;
+        mLastAttached = mPages.size() - 1;
+        mKeptPage = -1;
+    }
+}
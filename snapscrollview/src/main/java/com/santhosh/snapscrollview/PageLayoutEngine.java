@@ -0,0 +1,216 @@
+package com.santhosh.snapscrollview;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * Measures and positions the pages of a snap view. Every page is measured at most once
+ * per pass, bounded by the parent on the cross axis and unbounded along the scroll axis,
+ * and pages whose size, layout params and position did not change are skipped.
+ */
+final class PageLayoutEngine {
+
+    private boolean mVertical = true;
+
+    private int mMarginLeft;
+    private int mMarginTop;
+    private int mMarginRight;
+    private int mMarginBottom;
+
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
+    private int mPaddingLeft;
+    private int mPaddingTop;
+    private int mPaddingRight;
+    private int mPaddingBottom;
+    private boolean mForceMeasure = true;
+
+    private int mMaxPageWidth;
+    private int mMaxPageHeight;
+
+    void setVertical(boolean vertical) {
+        if (mVertical != vertical) {
+            mVertical = vertical;
+            mForceMeasure = true;
+        }
+    }
+
+    boolean isVertical() {
+        return mVertical;
+    }
+
+    void setChildMargins(int left, int top, int right, int bottom) {
+        mMarginLeft = left;
+        mMarginTop = top;
+        mMarginRight = right;
+        mMarginBottom = bottom;
+        mForceMeasure = true;
+    }
+
+    /**
+     * Measures every page of the parent. The specs are the parent's own measured size.
+     */
+    void measurePages(ViewGroup parent, int widthMeasureSpec, int heightMeasureSpec) {
+        startPass(parent, widthMeasureSpec, heightMeasureSpec);
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            measurePass(parent, parent.getChildAt(i));
+        }
+        mForceMeasure = false;
+    }
+
+    /**
+     * Same as {@link #measurePages(ViewGroup, int, int)} for an explicit list of pages, which
+     * may include pages currently detached from the parent.
+     */
+    void measurePages(ViewGroup parent, List<View> pages, int widthMeasureSpec, int heightMeasureSpec) {
+        startPass(parent, widthMeasureSpec, heightMeasureSpec);
+        for (int i = 0; i < pages.size(); i++) {
+            measurePass(parent, pages.get(i));
+        }
+        mForceMeasure = false;
+    }
+
+    private void startPass(ViewGroup parent, int widthMeasureSpec, int heightMeasureSpec) {
+        if (widthMeasureSpec != mWidthMeasureSpec || heightMeasureSpec != mHeightMeasureSpec) {
+            mWidthMeasureSpec = widthMeasureSpec;
+            mHeightMeasureSpec = heightMeasureSpec;
+            mForceMeasure = true;
+        }
+        // the padding is taken off the cross axis of every page
+        if (parent.getPaddingLeft() != mPaddingLeft || parent.getPaddingTop() != mPaddingTop
+                || parent.getPaddingRight() != mPaddingRight || parent.getPaddingBottom() != mPaddingBottom) {
+            mPaddingLeft = parent.getPaddingLeft();
+            mPaddingTop = parent.getPaddingTop();
+            mPaddingRight = parent.getPaddingRight();
+            mPaddingBottom = parent.getPaddingBottom();
+            mForceMeasure = true;
+        }
+        mMaxPageWidth = 0;
+        mMaxPageHeight = 0;
+    }
+
+    private void measurePass(ViewGroup parent, View child) {
+        if (child.getVisibility() == View.GONE) {
+            return;
+        }
+        if (mForceMeasure || child.isLayoutRequested()) {
+            measure(parent, child);
+        }
+        updateMaxExtent(child);
+    }
+
+    /**
+     * Measures a single page against the specs of the last {@link #measurePages} call.
+     */
+    void measurePage(ViewGroup parent, View child) {
+        measure(parent, child);
+        updateMaxExtent(child);
+    }
+
+    private void measure(ViewGroup parent, View child) {
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        int horizontalMargins = getLeftMargin(child) + getRightMargin(child) + parent.getPaddingLeft() + parent.getPaddingRight();
+        int verticalMargins = getTopMargin(child) + getBottomMargin(child) + parent.getPaddingTop() + parent.getPaddingBottom();
+        int widthSpec;
+        int heightSpec;
+        if (mVertical) {
+            widthSpec = ViewGroup.getChildMeasureSpec(mWidthMeasureSpec, horizontalMargins, params.width);
+            heightSpec = ViewGroup.getChildMeasureSpec(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED), 0, params.height);
+        } else {
+            widthSpec = ViewGroup.getChildMeasureSpec(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED), 0, params.width);
+            heightSpec = ViewGroup.getChildMeasureSpec(mHeightMeasureSpec, verticalMargins, params.height);
+        }
+        child.measure(widthSpec, heightSpec);
+    }
+
+    private void updateMaxExtent(View child) {
+        mMaxPageWidth = Math.max(mMaxPageWidth, getPageWidth(child));
+        mMaxPageHeight = Math.max(mMaxPageHeight, getPageHeight(child));
+    }
+
+    /**
+     * Positions a measured page whose slot starts at start along the scroll axis. The
+     * child is left alone when it is already at that position and did not request layout.
+     */
+    void layoutPage(ViewGroup parent, View child, int start) {
+        int left;
+        int top;
+        if (mVertical) {
+            left = parent.getPaddingLeft() + getLeftMargin(child);
+            top = parent.getPaddingTop() + start + getTopMargin(child);
+        } else {
+            left = parent.getPaddingLeft() + start + getLeftMargin(child);
+            top = parent.getPaddingTop() + getTopMargin(child);
+        }
+        int right = left + child.getMeasuredWidth();
+        int bottom = top + child.getMeasuredHeight();
+        if (!child.isLayoutRequested() && child.getLeft() == left && child.getTop() == top
+                && child.getRight() == right && child.getBottom() == bottom) {
+            return;
+        }
+        child.layout(left, top, right, bottom);
+    }
+
+    /**
+     * @return size of the page along the scroll axis including its margins.
+     */
+    int getPageExtent(View child) {
+        return mVertical ? getPageHeight(child) : getPageWidth(child);
+    }
+
+    /**
+     * @return size of the page along the scroll axis including its margins as declared by
+     * its layout params, or -1 when the size is only known after measuring the page.
+     */
+    int getDeclaredExtent(View child) {
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        int size = mVertical ? params.height : params.width;
+        if (size < 0) {
+            return -1;
+        }
+        return mVertical ? size + getTopMargin(child) + getBottomMargin(child)
+                : size + getLeftMargin(child) + getRightMargin(child);
+    }
+
+    int getMaxPageWidth() {
+        return mMaxPageWidth;
+    }
+
+    int getMaxPageHeight() {
+        return mMaxPageHeight;
+    }
+
+    int getMaxPageExtent() {
+        return mVertical ? mMaxPageHeight : mMaxPageWidth;
+    }
+
+    private int getPageWidth(View child) {
+        return child.getMeasuredWidth() + getLeftMargin(child) + getRightMargin(child);
+    }
+
+    private int getPageHeight(View child) {
+        return child.getMeasuredHeight() + getTopMargin(child) + getBottomMargin(child);
+    }
+
+    private int getLeftMargin(View child) {
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        return mMarginLeft + (params instanceof ViewGroup.MarginLayoutParams ? ((ViewGroup.MarginLayoutParams) params).leftMargin : 0);
+    }
+
+    private int getTopMargin(View child) {
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        return mMarginTop + (params instanceof ViewGroup.MarginLayoutParams ? ((ViewGroup.MarginLayoutParams) params).topMargin : 0);
+    }
+
+    private int getRightMargin(View child) {
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        return mMarginRight + (params instanceof ViewGroup.MarginLayoutParams ? ((ViewGroup.MarginLayoutParams) params).rightMargin : 0);
+    }
+
+    private int getBottomMargin(View child) {
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        return mMarginBottom + (params instanceof ViewGroup.MarginLayoutParams ? ((ViewGroup.MarginLayoutParams) params).bottomMargin : 0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.santhosh.snapscrollview;
+
+import java.util.Arrays;
+
+/**
+ * Prefix sums of page sizes along the scroll axis. Page start offsets are rebuilt lazily
+ * from the first page whose size changed, and the page at a scroll offset is found with a
+ * binary search. Pages whose size is not known yet use the estimated page size.
+ */
+final class PageOffsetIndex {
+
+    private static final int UNKNOWN_SIZE = -1;
+    static final int NO_CHANGE = Integer.MAX_VALUE;
+
+    private int[] mSizes = new int[0];
+    // mStarts[i] is the start of page i, mStarts[mCount] the total size
+    private int[] mStarts = new int[1];
+    private int mCount;
+    private int mValidCount;
+    private int mEstimatedSize;
+    // first position whose start or size changed since the last takeFirstChange()
+    private int mFirstChange;
+
+    void setPageCount(int count) {
+        if (count > mSizes.length) {
+            int capacity = Math.max(count, mSizes.length * 2);
+            int oldLength = mSizes.length;
+            mSizes = Arrays.copyOf(mSizes, capacity);
+            Arrays.fill(mSizes, oldLength, capacity, UNKNOWN_SIZE);
+            mStarts = Arrays.copyOf(mStarts, capacity + 1);
+        } else if (count < mCount) {
+            Arrays.fill(mSizes, count, mCount, UNKNOWN_SIZE);
+        }
+        if (mCount != count) {
+            mFirstChange = Math.min(mFirstChange, Math.min(mCount, count));
+            mCount = count;
+        }
+        mValidCount = Math.min(mValidCount, count);
+    }
+
+    int getPageCount() {
+        return mCount;
+    }
+
+    void setEstimatedPageSize(int size) {
+        if (mEstimatedSize != size) {
+            mEstimatedSize = size;
+            invalidateFrom(0);
+        }
+    }
+
+    int getEstimatedPageSize() {
+        return mEstimatedSize;
+    }
+
+    /**
+     * Records the measured size of a page. Offsets after it are only rebuilt when the size
+     * actually changed, a first measurement matching the estimate changes nothing.
+     */
+    void setPageSize(int position, int size) {
+        int oldSize = getPageSize(position);
+        mSizes[position] = size;
+        if (oldSize != size) {
+            invalidateFrom(position);
+        }
+    }
+
+    int getPageSize(int position) {
+        int size = mSizes[position];
+        return size == UNKNOWN_SIZE ? mEstimatedSize : size;
+    }
+
+    boolean isPageSizeKnown(int position) {
+        return mSizes[position] != UNKNOWN_SIZE;
+    }
+
+    /**
+     * Forgets every measured size, e.g. after the adapter data changed.
+     */
+    void clear() {
+        Arrays.fill(mSizes, 0, mCount, UNKNOWN_SIZE);
+        invalidateFrom(0);
+    }
+
+    private void invalidateFrom(int position) {
+        mValidCount = Math.min(mValidCount, position);
+        mFirstChange = Math.min(mFirstChange, position);
+    }
+
+    /**
+     * @return the first position whose start or size changed since the previous call, or
+     * {@link #NO_CHANGE}. Meant for the one {@link SnapAnchors} built from this index.
+     */
+    int takeFirstChange() {
+        int first = mFirstChange;
+        mFirstChange = NO_CHANGE;
+        return first;
+    }
+
+    /**
+     * @return start offset of the page, or the total size when position equals the page count.
+     */
+    int getPageStart(int position) {
+        ensureValid(position);
+        return mStarts[position];
+    }
+
+    int getPageEnd(int position) {
+        return getPageStart(position + 1);
+    }
+
+    int getTotalSize() {
+        return getPageStart(mCount);
+    }
+
+    /**
+     * @return the page containing offset, clamped to the first and last page.
+     */
+    int findPageAt(int offset) {
+        if (mCount == 0) {
+            return -1;
+        }
+        ensureValid(mCount);
+        int low = 0;
+        int high = mCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mStarts[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void ensureValid(int position) {
+        if (position <= mValidCount) {
+            return;
+        }
+        int start = mStarts[mValidCount];
+        for (int i = mValidCount; i < position; i++) {
+            start += getPageSize(i);
+            mStarts[i + 1] = start;
+        }
+        mValidCount = position;
+    }
+}
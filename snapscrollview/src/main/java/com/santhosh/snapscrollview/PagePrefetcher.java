@@ -0,0 +1,132 @@
+package com.santhosh.snapscrollview;
+
+import android.view.Choreographer;
+import android.view.View;
+
+/**
+ * Registry of pages expected to come into view after a release. The queued pages are
+ * handed to the host one at a time in the time left after a frame has been drawn, within
+ * a per-frame budget, so preparing them does not delay the fling or snap animation.
+ */
+final class PagePrefetcher implements Choreographer.FrameCallback, Runnable {
+
+    interface Callback {
+        void prefetchPage(int position);
+    }
+
+    static final int DEFAULT_FRAME_BUDGET_MS = 4;
+
+    private static final long NANOS_PER_MS = 1000000L;
+
+    private final View mHost;
+    private final Callback mCallback;
+    private final FrameScheduler mFrames = new FrameScheduler(this);
+    private final long mFrameIntervalNanos;
+
+    private int[] mQueue = new int[8];
+    private int mSize;
+    private int mNext;
+
+    private boolean mScheduled;
+    private long mFrameTimeNanos;
+    private long mBudgetNanos = DEFAULT_FRAME_BUDGET_MS * NANOS_PER_MS;
+    private long mAverageCostNanos;
+
+    PagePrefetcher(View host, Callback callback) {
+        mHost = host;
+        mCallback = callback;
+        mFrameIntervalNanos = FrameTiming.getFrameIntervalNanos(host.getContext());
+    }
+
+    /**
+     * @param millis time per frame spent on prefetching at most, 0 turns prefetching off.
+     */
+    void setFrameBudget(int millis) {
+        mBudgetNanos = Math.max(0, millis) * NANOS_PER_MS;
+        if (mBudgetNanos == 0) {
+            clear();
+        }
+    }
+
+    int getFrameBudget() {
+        return (int) (mBudgetNanos / NANOS_PER_MS);
+    }
+
+    boolean isEnabled() {
+        return mBudgetNanos > 0;
+    }
+
+    /**
+     * Queues a page, ignoring pages that are already queued.
+     */
+    void add(int position) {
+        if (!isEnabled()) {
+            return;
+        }
+        for (int i = mNext; i < mSize; i++) {
+            if (mQueue[i] == position) {
+                return;
+            }
+        }
+        if (mSize == mQueue.length) {
+            int[] queue = new int[mQueue.length * 2];
+            System.arraycopy(mQueue, 0, queue, 0, mSize);
+            mQueue = queue;
+        }
+        mQueue[mSize++] = position;
+        schedule();
+    }
+
+    /**
+     * Drops every queued page, e.g. when a new gesture starts.
+     */
+    void clear() {
+        mSize = 0;
+        mNext = 0;
+        if (mScheduled) {
+            mScheduled = false;
+            mFrames.remove();
+            mHost.removeCallbacks(this);
+        }
+    }
+
+    int getPendingCount() {
+        return mSize - mNext;
+    }
+
+    private void schedule() {
+        if (!mScheduled) {
+            mScheduled = true;
+            mFrames.post();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameTimeNanos = frameTimeNanos;
+        // runs after the traversal of this frame
+        mHost.post(this);
+    }
+
+    @Override
+    public void run() {
+        mScheduled = false;
+        long start = System.nanoTime();
+        long deadline = Math.min(mFrameTimeNanos + mFrameIntervalNanos, start + mBudgetNanos);
+        while (mNext < mSize) {
+            long now = System.nanoTime();
+            if (now + mAverageCostNanos > deadline) {
+                break;
+            }
+            mCallback.prefetchPage(mQueue[mNext++]);
+            long cost = System.nanoTime() - now;
+            mAverageCostNanos = mAverageCostNanos == 0 ? cost : (mAverageCostNanos * 3 + cost) / 4;
+        }
+        if (mNext < mSize) {
+            schedule();
+        } else {
+            mSize = 0;
+            mNext = 0;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.santhosh.snapscrollview;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Keeps track of the adapter pages attached to a snap view. Pages that leave the
+ * attached range go back to the {@link RecycledViewPool}, pages entering it are
+ * taken from the pool (or created) and bound.
+ */
+final class PageRecycler {
+
+    interface Callback {
+        void addPage(View page, int position);
+
+        void removePage(View page, int position);
+    }
+
+    static final int DEFAULT_OFFSCREEN_PAGE_LIMIT = 1;
+
+    private final ViewGroup mHost;
+    private final Callback mCallback;
+    private final SparseArray<View> mActivePages = new SparseArray<>();
+    private final SparseIntArray mActiveTypes = new SparseIntArray();
+
+    private SnapAdapter mAdapter;
+    private RecycledViewPool mPool = new RecycledViewPool();
+    private int mOffscreenPageLimit = DEFAULT_OFFSCREEN_PAGE_LIMIT;
+
+    PageRecycler(ViewGroup host, Callback callback) {
+        mHost = host;
+        mCallback = callback;
+    }
+
+    void setAdapter(SnapAdapter adapter) {
+        recycleAll();
+        mAdapter = adapter;
+    }
+
+    SnapAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    int getItemCount() {
+        return mAdapter != null ? mAdapter.getItemCount() : 0;
+    }
+
+    void setPool(RecycledViewPool pool) {
+        recycleAll();
+        mPool = pool != null ? pool : new RecycledViewPool();
+    }
+
+    RecycledViewPool getPool() {
+        return mPool;
+    }
+
+    void setOffscreenPageLimit(int limit) {
+        mOffscreenPageLimit = Math.max(0, limit);
+    }
+
+    int getOffscreenPageLimit() {
+        return mOffscreenPageLimit;
+    }
+
+    /**
+     * Attaches every page in [first, last] and recycles every other attached page.
+     */
+    void fill(int first, int last) {
+        for (int i = mActivePages.size() - 1; i >= 0; i--) {
+            int position = mActivePages.keyAt(i);
+            if (position < first || position > last) {
+                recycleAt(i);
+            }
+        }
+        for (int position = first; position <= last; position++) {
+            if (mActivePages.get(position) == null) {
+                int viewType = mAdapter.getItemViewType(position);
+                View page = mPool.getRecycledView(viewType);
+                if (page == null) {
+                    page = mAdapter.onCreateView(mHost, viewType);
+                }
+                mAdapter.onBindView(page, position);
+                mActivePages.put(position, page);
+                mActiveTypes.put(position, viewType);
+                mCallback.addPage(page, position);
+            }
+        }
+    }
+
+    /**
+     * Makes sure a view for the page at position is ready in the pool, so attaching it later
+     * only has to bind it, and lets the adapter warm up its data.
+     */
+    void prefetch(int position) {
+        if (mAdapter == null || position < 0 || position >= mAdapter.getItemCount()
+                || mActivePages.get(position) != null) {
+            return;
+        }
+        int viewType = mAdapter.getItemViewType(position);
+        if (mPool.getRecycledViewCount(viewType) == 0) {
+            mPool.putRecycledView(viewType, mAdapter.onCreateView(mHost, viewType));
+        }
+        mAdapter.onPrefetchPage(position);
+    }
+
+    void recycleAll() {
+        for (int i = mActivePages.size() - 1; i >= 0; i--) {
+            recycleAt(i);
+        }
+    }
+
+    private void recycleAt(int index) {
+        int position = mActivePages.keyAt(index);
+        View page = mActivePages.valueAt(index);
+        mActivePages.removeAt(index);
+        int viewType = mActiveTypes.get(position);
+        mActiveTypes.delete(position);
+        mCallback.removePage(page, position);
+        if (mAdapter != null) {
+            mAdapter.onViewRecycled(page);
+        }
+        mPool.putRecycledView(viewType, page);
+    }
+
+    View getActivePage(int position) {
+        return mActivePages.get(position);
+    }
+
+    int getActiveCount() {
+        return mActivePages.size();
+    }
+
+    int getActivePositionAt(int index) {
+        return mActivePages.keyAt(index);
+    }
+
+    View getActivePageAt(int index) {
+        return mActivePages.valueAt(index);
+    }
+}
@@ -0,0 +1,21 @@
+package com.santhosh.snapscrollview;
+
+import android.view.View;
+
+/**
+ * Applies scroll linked effects such as parallax, scaling or fading to the pages of a snap
+ * view. It is called at most once per frame, right before drawing, for every page in or
+ * next to the viewport.
+ * <p>
+ * Only change properties kept by the page's render node (translation, scale, rotation,
+ * alpha and pivot), which take effect without measuring, laying out or redrawing the page.
+ */
+public interface PageTransformer {
+
+    /**
+     * @param page     attached page view
+     * @param position offset of the page from the snap position in pages: 0 when it is
+     *                 snapped into place, negative towards the start, positive towards the end
+     */
+    void transformPage(View page, float position);
+}
@@ -0,0 +1,156 @@
+package com.santhosh.snapscrollview;
+
+import android.util.SparseArray;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Holds detached page views keyed by their view type so they can be rebound to
+ * another position instead of being inflated again.
+ * <p>
+ * One pool can be shared by several snap views showing the same kind of pages, e.g. the
+ * carousels of a feed, so pages scrolled off one view are reused by the next. Every view
+ * type keeps at most its own number of views, and once the pool as a whole is full the
+ * least recently recycled view of any type is dropped.
+ */
+public class RecycledViewPool {
+
+    private static final int DEFAULT_MAX_SCRAP = 5;
+    private static final int DEFAULT_MAX_POOL_SIZE = 32;
+
+    /**
+     * Views of one type, oldest first, each with the time it was recycled at.
+     */
+    private static final class ScrapHeap {
+        View[] mViews = new View[DEFAULT_MAX_SCRAP];
+        long[] mStamps = new long[DEFAULT_MAX_SCRAP];
+        int mSize;
+        int mMax = DEFAULT_MAX_SCRAP;
+
+        void add(View view, long stamp) {
+            if (mSize == mViews.length) {
+                int capacity = mSize * 2 + 1;
+                mViews = Arrays.copyOf(mViews, capacity);
+                mStamps = Arrays.copyOf(mStamps, capacity);
+            }
+            mViews[mSize] = view;
+            mStamps[mSize] = stamp;
+            mSize++;
+        }
+
+        View removeNewest() {
+            View view = mViews[--mSize];
+            mViews[mSize] = null;
+            return view;
+        }
+
+        void removeOldest() {
+            mSize--;
+            System.arraycopy(mViews, 1, mViews, 0, mSize);
+            System.arraycopy(mStamps, 1, mStamps, 0, mSize);
+            mViews[mSize] = null;
+        }
+    }
+
+    private final SparseArray<ScrapHeap> mScrap = new SparseArray<>();
+    private int mMaxPoolSize = DEFAULT_MAX_POOL_SIZE;
+    private int mSize;
+    private long mNextStamp;
+
+    public View getRecycledView(int viewType) {
+        ScrapHeap scrap = mScrap.get(viewType);
+        if (scrap != null && scrap.mSize > 0) {
+            mSize--;
+            return scrap.removeNewest();
+        }
+        return null;
+    }
+
+    public void putRecycledView(int viewType, View view) {
+        ScrapHeap scrap = getScrapFor(viewType);
+        if (scrap.mMax <= 0 || mMaxPoolSize <= 0) {
+            return;
+        }
+        if (scrap.mSize >= scrap.mMax) {
+            scrap.removeOldest();
+            mSize--;
+        }
+        while (mSize >= mMaxPoolSize) {
+            evictOldest();
+        }
+        scrap.add(view, mNextStamp++);
+        mSize++;
+    }
+
+    /**
+     * Sets how many views of the given type are kept, 5 by default.
+     */
+    public void setMaxRecycledViews(int viewType, int max) {
+        ScrapHeap scrap = getScrapFor(viewType);
+        scrap.mMax = max;
+        while (scrap.mSize > Math.max(0, max)) {
+            scrap.removeOldest();
+            mSize--;
+        }
+    }
+
+    /**
+     * Sets how many views are kept over all view types, 32 by default. The least recently
+     * recycled views are dropped first.
+     */
+    public void setMaxPoolSize(int max) {
+        mMaxPoolSize = max;
+        while (mSize > Math.max(0, max)) {
+            evictOldest();
+        }
+    }
+
+    public int getMaxPoolSize() {
+        return mMaxPoolSize;
+    }
+
+    public int getRecycledViewCount(int viewType) {
+        ScrapHeap scrap = mScrap.get(viewType);
+        return scrap != null ? scrap.mSize : 0;
+    }
+
+    /**
+     * @return number of views kept over all view types.
+     */
+    public int getRecycledViewCount() {
+        return mSize;
+    }
+
+    public void clear() {
+        for (int i = 0; i < mScrap.size(); i++) {
+            ScrapHeap scrap = mScrap.valueAt(i);
+            Arrays.fill(scrap.mViews, 0, scrap.mSize, null);
+            scrap.mSize = 0;
+        }
+        mSize = 0;
+    }
+
+    private void evictOldest() {
+        ScrapHeap oldest = null;
+        for (int i = 0; i < mScrap.size(); i++) {
+            ScrapHeap scrap = mScrap.valueAt(i);
+            if (scrap.mSize > 0 && (oldest == null || scrap.mStamps[0] < oldest.mStamps[0])) {
+                oldest = scrap;
+            }
+        }
+        if (oldest != null) {
+            oldest.removeOldest();
+            mSize--;
+        }
+    }
+
+    private ScrapHeap getScrapFor(int viewType) {
+        ScrapHeap scrap = mScrap.get(viewType);
+        if (scrap == null) {
+            scrap = new ScrapHeap();
+            mScrap.put(viewType, scrap);
+        }
+        return scrap;
+    }
+}
@@ -0,0 +1,64 @@
+package com.santhosh.snapscrollview;
+
+import android.database.DataSetObservable;
+import android.database.DataSetObserver;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Supplies the pages of a {@link SnapScrollView} or {@link HorizontalSnapScrollView}
+ * when the pages are not declared as child views. Only the pages close to the
+ * viewport are created and bound, the rest are recycled through a {@link RecycledViewPool}.
+ */
+public abstract class SnapAdapter {
+
+    private final DataSetObservable mObservable = new DataSetObservable();
+
+    /**
+     * @return total number of pages.
+     */
+    public abstract int getItemCount();
+
+    /**
+     * @return the type of view used for the page at position. Views are only reused
+     * between pages of the same type.
+     */
+    public int getItemViewType(int position) {
+        return 0;
+    }
+
+    /**
+     * Creates a new page view of the given type. The view is not yet attached to parent.
+     */
+    public abstract View onCreateView(ViewGroup parent, int viewType);
+
+    /**
+     * Updates the contents of a (possibly recycled) page view for the given position.
+     */
+    public abstract void onBindView(View view, int position);
+
+    /**
+     * Called when a page view is detached and moved into the recycled view pool.
+     */
+    public void onViewRecycled(View view) {
+    }
+
+    /**
+     * Called during idle frame time for a page that is predicted to come into view after a
+     * fling, before it is bound. Use it to warm up data or images for the position.
+     */
+    public void onPrefetchPage(int position) {
+    }
+
+    public void registerDataSetObserver(DataSetObserver observer) {
+        mObservable.registerObserver(observer);
+    }
+
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        mObservable.unregisterObserver(observer);
+    }
+
+    public void notifyDataSetChanged() {
+        mObservable.notifyChanged();
+    }
+}
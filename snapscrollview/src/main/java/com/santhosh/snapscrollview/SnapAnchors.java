@@ -0,0 +1,169 @@
+package com.santhosh.snapscrollview;
+
+import java.util.Arrays;
+
+/**
+ * Scroll offset at which each page is snapped into place for a snap alignment, kept in a
+ * primitive array so snap lookups are array reads and binary searches only. Like the page
+ * offsets, anchors are only recomputed from the first page whose offset changed.
+ */
+final class SnapAnchors {
+
+    static final int ALIGN_START = 0;
+    static final int ALIGN_CENTER = 1;
+    static final int ALIGN_END = 2;
+
+    // mAnchors[i] is the anchor of page i, mAnchors[mCount] that of a page following the last one
+    private int[] mAnchors = new int[1];
+    private int mCount;
+    private int mMinScroll;
+    private int mMaxScroll;
+
+    private int mViewport = -1;
+    private int mAlignment = -1;
+    private int mPeek = -1;
+
+    /**
+     * Recomputes the anchors from the first page that changed since the last call, or all
+     * of them when the viewport or the alignment changed.
+     *
+     * @param viewport  visible size along the scroll axis
+     * @param alignment one of the ALIGN_ constants
+     * @param peek      space in pixels left for the previous page (start alignment) or the
+     *                  next page (end alignment)
+     */
+    void update(PageOffsetIndex pages, int viewport, int alignment, int peek) {
+        int from = pages.takeFirstChange();
+        if (viewport != mViewport || alignment != mAlignment || peek != mPeek) {
+            mViewport = viewport;
+            mAlignment = alignment;
+            mPeek = peek;
+            from = 0;
+        }
+        if (from == PageOffsetIndex.NO_CHANGE) {
+            return;
+        }
+        int count = pages.getPageCount();
+        from = Math.min(from, Math.min(mCount, count));
+        mCount = count;
+        if (mAnchors.length < mCount + 1) {
+            mAnchors = Arrays.copyOf(mAnchors, Math.max(mCount + 1, mAnchors.length * 2));
+        }
+        for (int i = from; i < mCount; i++) {
+            mAnchors[i] = computeAnchor(pages.getPageStart(i), pages.getPageSize(i), viewport, alignment, peek);
+        }
+        int range = Math.max(0, pages.getTotalSize() - viewport);
+        if (mCount == 0) {
+            mAnchors[0] = 0;
+            mMinScroll = 0;
+            mMaxScroll = range;
+            return;
+        }
+        mAnchors[mCount] = mAnchors[mCount - 1] + pages.getPageSize(mCount - 1);
+        if (alignment == ALIGN_CENTER) {
+            // the first and last page may be centred even though that shows space outside the content
+            mMinScroll = Math.min(0, mAnchors[0]);
+            mMaxScroll = Math.max(range, mAnchors[mCount - 1]);
+        } else {
+            mMinScroll = 0;
+            mMaxScroll = range;
+        }
+    }
+
+    static int computeAnchor(int pageStart, int pageSize, int viewport, int alignment, int peek) {
+        switch (alignment) {
+            case ALIGN_CENTER:
+                return pageStart + pageSize / 2 - viewport / 2;
+            case ALIGN_END:
+                return pageStart + pageSize - viewport + peek;
+            case ALIGN_START:
+            default:
+                return pageStart - peek;
+        }
+    }
+
+    int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the anchor of the page, not limited to the scroll bounds. position may be the
+     * page count for the anchor of a virtual page following the last one.
+     */
+    int getAnchor(int position) {
+        return mAnchors[position];
+    }
+
+    /**
+     * @return the anchor of the page limited to the scroll bounds.
+     */
+    int getSnapOffset(int position) {
+        return Math.max(mMinScroll, Math.min(mAnchors[position], mMaxScroll));
+    }
+
+    /**
+     * @return the offset at which the pages first..last are snapped into place together,
+     * limited to the scroll bounds. Centred groups sit midway between the anchors of their
+     * first and last page.
+     */
+    int getGroupSnapOffset(int first, int last) {
+        if (first == last) {
+            return getSnapOffset(first);
+        }
+        int anchor;
+        switch (mAlignment) {
+            case ALIGN_CENTER:
+                anchor = (mAnchors[first] + mAnchors[last]) / 2;
+                break;
+            case ALIGN_END:
+                anchor = mAnchors[last];
+                break;
+            case ALIGN_START:
+            default:
+                anchor = mAnchors[first];
+                break;
+        }
+        return Math.max(mMinScroll, Math.min(anchor, mMaxScroll));
+    }
+
+    int getMinScroll() {
+        return mMinScroll;
+    }
+
+    int getMaxScroll() {
+        return mMaxScroll;
+    }
+
+    /**
+     * @return the last page whose anchor is at or before offset, clamped to the first and
+     * last page, -1 when there are no pages.
+     */
+    int findAnchorAt(int offset) {
+        if (mCount == 0) {
+            return -1;
+        }
+        int low = 0;
+        int high = mCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mAnchors[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the page whose anchor is closest to offset, -1 when there are no pages.
+     */
+    int findClosestAnchor(int offset) {
+        int page = findAnchorAt(offset);
+        if (page < 0 || page == mCount - 1) {
+            return page;
+        }
+        int next = mAnchors[page + 1];
+        return next - offset < offset - mAnchors[page] ? page + 1 : page;
+    }
+}
@@ -0,0 +1,190 @@
+package com.santhosh.snapscrollview;
+
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+/**
+ * Runs snap and fling animations along the scroll axis from Choreographer frame callbacks.
+ * The offset of every frame is computed from the frame time, so a dropped frame moves the
+ * content further on the next one instead of slowing the animation down, and the view only
+ * has to apply the new scroll offset.
+ */
+final class SnapAnimator implements Choreographer.FrameCallback {
+
+    interface Callback {
+        void onAnimationUpdate(int offset);
+
+        void onAnimationEnd();
+    }
+
+    private static final int MODE_IDLE = 0;
+    private static final int MODE_SNAP = 1;
+    private static final int MODE_FLING = 2;
+
+    private static final int SPRING_BACK_DURATION = 250;
+    private static final int MIN_SNAP_DURATION = 100;
+    private static final float VELOCITY_SAMPLE = 0.01f;
+    private static final float NANOS_PER_MS = 1000000f;
+
+    private final FrameScheduler mFrames = new FrameScheduler(this);
+    private final FlingPhysics mPhysics;
+    private final Callback mCallback;
+    private Interpolator mInterpolator;
+
+    private int mMode = MODE_IDLE;
+    private int mStart;
+    private int mFinal;
+    private int mCurrent;
+    private int mDuration;
+    private long mStartTimeNanos;
+
+    SnapAnimator(FlingPhysics physics, Interpolator interpolator, Callback callback) {
+        mPhysics = physics;
+        mInterpolator = interpolator;
+        mCallback = callback;
+    }
+
+    void setInterpolator(Interpolator interpolator) {
+        mInterpolator = interpolator;
+    }
+
+    /**
+     * Animates from start to end with the snap interpolator.
+     */
+    void snap(int start, int end, int duration) {
+        start(MODE_SNAP, start, end, duration);
+    }
+
+    /**
+     * Flings from start with velocity in pixels per second, coming to rest inside [min, max].
+     */
+    void fling(int start, int velocity, int min, int max) {
+        int end = mPhysics.getFinalOffset(start, velocity, 0, min, max);
+        start(MODE_FLING, start, end, mPhysics.getSplineFlingDurationForDistance(Math.abs(end - start)));
+    }
+
+    /**
+     * Brings an offset outside of [min, max] back to the nearest bound.
+     *
+     * @return true when an animation was started.
+     */
+    boolean springBack(int start, int min, int max) {
+        if (start < min) {
+            start(MODE_SNAP, start, min, SPRING_BACK_DURATION);
+        } else if (start > max) {
+            start(MODE_SNAP, start, max, SPRING_BACK_DURATION);
+        }
+        return !isFinished();
+    }
+
+    private void start(int mode, int start, int end, int duration) {
+        mFrames.remove();
+        mStart = start;
+        mCurrent = start;
+        mFinal = end;
+        mDuration = duration;
+        if (start == end || duration <= 0) {
+            mMode = MODE_IDLE;
+            if (start != end) {
+                mCurrent = end;
+                mCallback.onAnimationUpdate(end);
+            }
+            return;
+        }
+        mMode = mode;
+        mStartTimeNanos = System.nanoTime();
+        mFrames.post();
+    }
+
+    /**
+     * Stops the animation where it is.
+     */
+    void abort() {
+        if (mMode != MODE_IDLE) {
+            mMode = MODE_IDLE;
+            mFrames.remove();
+        }
+    }
+
+    boolean isFinished() {
+        return mMode == MODE_IDLE;
+    }
+
+    int getStart() {
+        return mStart;
+    }
+
+    int getFinal() {
+        return mFinal;
+    }
+
+    int getCurrent() {
+        return mCurrent;
+    }
+
+    /**
+     * @return absolute velocity of the running animation in pixels per second, 0 when idle.
+     */
+    float getCurrVelocity() {
+        if (mMode == MODE_IDLE) {
+            return 0;
+        }
+        float t = getElapsedFraction(System.nanoTime());
+        float coef;
+        if (mMode == MODE_FLING) {
+            coef = FlingPhysics.getSplineVelocityCoef(t);
+        } else {
+            float next = Math.min(1.0f, t + VELOCITY_SAMPLE);
+            coef = next > t ? (mInterpolator.getInterpolation(next) - mInterpolator.getInterpolation(t)) / (next - t) : 0;
+        }
+        return Math.abs(coef) * Math.abs(mFinal - mStart) / mDuration * 1000.0f;
+    }
+
+    /**
+     * Picks the duration of a snap over distance pixels. With a velocity the content keeps
+     * roughly that speed, without one the duration grows with the number of pages crossed.
+     *
+     * @param velocity    current absolute velocity in pixels per second, 0 when at rest
+     * @param pageSize    size of a page along the scroll axis
+     * @param maxDuration upper bound of the duration in milliseconds
+     */
+    static int computeSnapDuration(int distance, float velocity, int pageSize, int maxDuration) {
+        distance = Math.abs(distance);
+        if (distance == 0) {
+            return 0;
+        }
+        int duration;
+        if (velocity > 0) {
+            // the snap curves start about four times faster than their average speed
+            duration = 4 * Math.round(1000 * distance / velocity);
+        } else {
+            float pages = pageSize > 0 ? (float) distance / pageSize : 1;
+            duration = (int) ((pages + 1) * MIN_SNAP_DURATION);
+        }
+        return Math.max(MIN_SNAP_DURATION, Math.min(duration, maxDuration));
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (mMode == MODE_IDLE) {
+            return;
+        }
+        float t = getElapsedFraction(frameTimeNanos);
+        if (t >= 1.0f) {
+            mMode = MODE_IDLE;
+            mCurrent = mFinal;
+            mCallback.onAnimationUpdate(mFinal);
+            mCallback.onAnimationEnd();
+            return;
+        }
+        float fraction = mMode == MODE_FLING ? FlingPhysics.getSplinePosition(t) : mInterpolator.getInterpolation(t);
+        mCurrent = mStart + Math.round(fraction * (mFinal - mStart));
+        mCallback.onAnimationUpdate(mCurrent);
+        mFrames.post();
+    }
+
+    private float getElapsedFraction(long timeNanos) {
+        float elapsed = (timeNanos - mStartTimeNanos) / NANOS_PER_MS;
+        return Math.max(0.0f, Math.min(1.0f, elapsed / mDuration));
+    }
+}
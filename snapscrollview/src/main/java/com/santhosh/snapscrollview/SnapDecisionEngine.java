@@ -0,0 +1,156 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Decides what happens when a drag is released: snap to a page, snap to either end of the
+ * content or keep flinging freely. The engine only works with scroll offsets and the snap
+ * anchors of the pages, so both orientations and every snap alignment share it, and the
+ * result is kept in fields of the engine instead of an allocated object.
+ * <p>
+ * Pages can be snapped in groups, and the number of pages a single fling may advance can be
+ * limited. Both are applied to the target page in constant time after the decision.
+ */
+final class SnapDecisionEngine {
+
+    static final int DECISION_FLING = 0;
+    static final int DECISION_SNAP = 1;
+    static final int DECISION_START = 2;
+    static final int DECISION_END = 3;
+
+    static final int NO_FLING_LIMIT = 0;
+
+    private int mDecision = DECISION_FLING;
+    private int mTargetOffset;
+    private int mTargetPage;
+    private int mGroupSize = 1;
+    private int mMaxPagesPerFling = NO_FLING_LIMIT;
+
+    /**
+     * @param groupSize number of pages snapped together, the first page of every group is a
+     *                  multiple of it
+     */
+    void setGroupSize(int groupSize) {
+        mGroupSize = Math.max(1, groupSize);
+    }
+
+    int getGroupSize() {
+        return mGroupSize;
+    }
+
+    /**
+     * @param maxPages number of pages a fling may advance at most, rounded down to whole
+     *                 groups but at least one group, or {@link #NO_FLING_LIMIT}
+     */
+    void setMaxPagesPerFling(int maxPages) {
+        mMaxPagesPerFling = Math.max(NO_FLING_LIMIT, maxPages);
+    }
+
+    int getMaxPagesPerFling() {
+        return mMaxPagesPerFling;
+    }
+
+    /**
+     * @param anchors         snap anchors of the pages
+     * @param scrollOffset    current scroll offset
+     * @param predictedOffset offset where a free fling would come to rest
+     * @param velocity        touch velocity, positive when the finger moves towards the end of
+     *                        the axis, i.e. when the content scrolls back towards the start
+     * @param minimumVelocity velocity below which the release is treated as a plain fling
+     * @return one of the DECISION_ constants, also available from {@link #getDecision()}
+     */
+    int decide(SnapAnchors anchors, int scrollOffset, int predictedOffset, int velocity, int minimumVelocity) {
+        int count = anchors.getCount();
+        mDecision = DECISION_FLING;
+        mTargetOffset = predictedOffset;
+        mTargetPage = Math.max(0, anchors.findAnchorAt(predictedOffset));
+        if (count == 0 || Math.abs(velocity) <= minimumVelocity) {
+            return mDecision;
+        }
+        int max = anchors.getMaxScroll();
+        int page = mTargetPage;
+        int pageEnd = anchors.getAnchor(page + 1);
+        if (velocity >= 0) {
+            // content moves towards the start
+            if (predictedOffset <= anchors.getAnchor(0)) {
+                setResult(DECISION_START, anchors.getSnapOffset(0), 0);
+            } else if (pageEnd > scrollOffset) {
+                int current = Math.max(0, anchors.findAnchorAt(scrollOffset));
+                setResult(DECISION_SNAP, anchors.getSnapOffset(current), current);
+            } else {
+                snapTo(anchors, page + 1);
+            }
+        } else {
+            // content moves towards the end
+            if (scrollOffset > max || pageEnd > max) {
+                setResult(DECISION_END, Math.max(anchors.getMinScroll(), Math.min(predictedOffset, max)), count - 1);
+            } else if (pageEnd < scrollOffset) {
+                snapTo(anchors, page + 2);
+            } else {
+                snapTo(anchors, page + 1);
+            }
+        }
+        if (mGroupSize > 1 || mMaxPagesPerFling != NO_FLING_LIMIT) {
+            applyLimits(anchors, scrollOffset, velocity < 0);
+        }
+        return mDecision;
+    }
+
+    /**
+     * Moves the target of a snap to the group it falls in and keeps it within the fling
+     * limit of the page the release started from.
+     *
+     * @param forward true when the content moves towards the end
+     */
+    private void applyLimits(SnapAnchors anchors, int scrollOffset, boolean forward) {
+        int origin = anchors.findAnchorAt(scrollOffset);
+        if (!forward && anchors.getAnchor(origin) < scrollOffset) {
+            // a page only partly scrolled back in counts from the page after it
+            origin = Math.min(origin + 1, anchors.getCount() - 1);
+        }
+        int lastGroup = (anchors.getCount() - 1) / mGroupSize;
+        int group = forward ? (mTargetPage + mGroupSize - 1) / mGroupSize : mTargetPage / mGroupSize;
+        if (mMaxPagesPerFling != NO_FLING_LIMIT) {
+            int maxGroups = Math.max(1, mMaxPagesPerFling / mGroupSize);
+            int originGroup = forward ? origin / mGroupSize : (origin + mGroupSize - 1) / mGroupSize;
+            group = Math.max(originGroup - maxGroups, Math.min(group, originGroup + maxGroups));
+        }
+        int page = Math.min(group, lastGroup) * mGroupSize;
+        if (mDecision == DECISION_SNAP || page != mTargetPage) {
+            setResult(DECISION_SNAP, getGroupSnapOffset(anchors, page), page);
+        }
+    }
+
+    /**
+     * @return scroll offset at which the group containing the page is snapped into place.
+     */
+    int getGroupSnapOffset(SnapAnchors anchors, int page) {
+        int first = page / mGroupSize * mGroupSize;
+        return anchors.getGroupSnapOffset(first, Math.min(first + mGroupSize, anchors.getCount()) - 1);
+    }
+
+    private void snapTo(SnapAnchors anchors, int page) {
+        page = Math.min(page, anchors.getCount() - 1);
+        setResult(DECISION_SNAP, anchors.getSnapOffset(page), page);
+    }
+
+    private void setResult(int decision, int targetOffset, int targetPage) {
+        mDecision = decision;
+        mTargetOffset = targetOffset;
+        mTargetPage = targetPage;
+    }
+
+    int getDecision() {
+        return mDecision;
+    }
+
+    /**
+     * @return scroll offset to animate to. For {@link #DECISION_FLING} this is the predicted
+     * resting offset of the fling.
+     */
+    int getTargetOffset() {
+        return mTargetOffset;
+    }
+
+    int getTargetPage() {
+        return mTargetPage;
+    }
+}
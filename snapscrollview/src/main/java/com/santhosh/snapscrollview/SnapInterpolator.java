@@ -0,0 +1,105 @@
+package com.santhosh.snapscrollview;
+
+import android.view.animation.Interpolator;
+
+/**
+ * Interpolator for snap animations backed by a table sampled once per curve. Lookups
+ * interpolate linearly between the two nearest samples, so no transcendental function is
+ * evaluated while an animation runs.
+ */
+public class SnapInterpolator implements Interpolator {
+
+    public static final int CURVE_VISCOUS_FLUID = 0;
+    public static final int CURVE_DECELERATE = 1;
+    public static final int CURVE_SPRING = 2;
+
+    static final int SAMPLES = 512;
+
+    /**
+     * Controls the viscous fluid effect (how much of it).
+     */
+    private static final float VISCOUS_FLUID_SCALE = 6.0f;
+    private static final float VISCOUS_FLUID_NORMALIZE;
+    private static final float VISCOUS_FLUID_OFFSET;
+
+    private static final float SPRING_DAMPING = 5.0f;
+    private static final float SPRING_FREQUENCY = (float) (2.5 * Math.PI);
+
+    private static final SnapInterpolator[] sInstances = new SnapInterpolator[3];
+
+    static {
+        // must be set to 1.0 (used in viscousFluid())
+        VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+        // account for very small floating-point error
+        VISCOUS_FLUID_OFFSET = 1.0f - VISCOUS_FLUID_NORMALIZE * viscousFluid(1.0f);
+    }
+
+    private final float[] mTable = new float[SAMPLES + 1];
+
+    private SnapInterpolator(int curve) {
+        for (int i = 0; i <= SAMPLES; i++) {
+            mTable[i] = evaluate(curve, (float) i / SAMPLES);
+        }
+        mTable[SAMPLES] = 1.0f;
+    }
+
+    /**
+     * @return the shared interpolator for one of the CURVE_ constants.
+     */
+    public static SnapInterpolator forCurve(int curve) {
+        if (curve < 0 || curve >= sInstances.length) {
+            throw new IllegalArgumentException("Unknown snap curve " + curve);
+        }
+        SnapInterpolator interpolator = sInstances[curve];
+        if (interpolator == null) {
+            interpolator = new SnapInterpolator(curve);
+            sInstances[curve] = interpolator;
+        }
+        return interpolator;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0) {
+            return mTable[0];
+        }
+        if (input >= 1) {
+            return 1.0f;
+        }
+        float position = input * SAMPLES;
+        int index = (int) position;
+        float start = mTable[index];
+        return start + (position - index) * (mTable[index + 1] - start);
+    }
+
+    /**
+     * Closed form of the curves, only used to fill the tables.
+     */
+    static float evaluate(int curve, float input) {
+        switch (curve) {
+            case CURVE_DECELERATE:
+                return 1.0f - (1.0f - input) * (1.0f - input);
+            case CURVE_SPRING:
+                return 1.0f - (float) (Math.exp(-SPRING_DAMPING * input) * Math.cos(SPRING_FREQUENCY * input));
+            case CURVE_VISCOUS_FLUID:
+            default:
+                final float interpolated = VISCOUS_FLUID_NORMALIZE * viscousFluid(input);
+                if (interpolated > 0) {
+                    return interpolated + VISCOUS_FLUID_OFFSET;
+                }
+                return interpolated;
+        }
+    }
+
+    private static float viscousFluid(float x) {
+        x *= VISCOUS_FLUID_SCALE;
+        if (x < 1.0f) {
+            x -= (1.0f - (float) Math.exp(-x));
+        } else {
+            float start = 0.36787944117f;   // 1/e == exp(-1)
+            x = 1.0f - (float) Math.exp(1.0f - x);
+            x = start + x * (1.0f - start);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,95 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Timing of a single gesture, from releasing the drag until the content comes to rest.
+ * The same instance is filled in again for every gesture, so copy the values that have
+ * to be kept after {@link SnapMetricsListener#onGestureMetrics(SnapMetrics)} returns.
+ */
+public final class SnapMetrics {
+
+    long mSettleNanos;
+    long mPageChangeLatencyNanos;
+    long mMaxFrameNanos;
+    int mFramesRendered;
+    int mFramesDropped;
+    int mPredictedOffset;
+    int mRestingOffset;
+    int mStartPage;
+    int mEndPage;
+    boolean mInterrupted;
+
+    SnapMetrics() {
+    }
+
+    void reset() {
+        mSettleNanos = 0;
+        mPageChangeLatencyNanos = -1;
+        mMaxFrameNanos = 0;
+        mFramesRendered = 0;
+        mFramesDropped = 0;
+        mPredictedOffset = 0;
+        mRestingOffset = 0;
+        mStartPage = 0;
+        mEndPage = 0;
+        mInterrupted = false;
+    }
+
+    /**
+     * @return time from touch up until the snap or fling animation settled, in nanoseconds.
+     */
+    public long getSettleNanos() {
+        return mSettleNanos;
+    }
+
+    /**
+     * @return time from touch up until the first page change, in nanoseconds, or -1 when the
+     * gesture settled on the page it started from.
+     */
+    public long getPageChangeLatencyNanos() {
+        return mPageChangeLatencyNanos;
+    }
+
+    /**
+     * @return longest interval between two animation frames, in nanoseconds.
+     */
+    public long getMaxFrameNanos() {
+        return mMaxFrameNanos;
+    }
+
+    public int getFramesRendered() {
+        return mFramesRendered;
+    }
+
+    /**
+     * @return number of frames missed between rendered frames, based on the display refresh rate.
+     */
+    public int getFramesDropped() {
+        return mFramesDropped;
+    }
+
+    /**
+     * @return offset a free fling from the release velocity was predicted to come to rest at.
+     */
+    public int getPredictedOffset() {
+        return mPredictedOffset;
+    }
+
+    public int getRestingOffset() {
+        return mRestingOffset;
+    }
+
+    public int getStartPage() {
+        return mStartPage;
+    }
+
+    public int getEndPage() {
+        return mEndPage;
+    }
+
+    /**
+     * @return true when a new touch stopped the animation before it settled.
+     */
+    public boolean isInterrupted() {
+        return mInterrupted;
+    }
+}
@@ -0,0 +1,28 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Opt-in hooks into the gestures of a snap view, for measuring scroll performance in
+ * production. Every callback runs on the main thread, keep them cheap.
+ */
+public interface SnapMetricsListener {
+
+    /**
+     * Called when a touch turns into a drag.
+     */
+    void onDragStart(int offset);
+
+    /**
+     * Called on release with the offset a free fling would come to rest at.
+     */
+    void onFlingPredicted(int startOffset, int predictedOffset);
+
+    /**
+     * Called when the snap or fling animation towards targetOffset starts.
+     */
+    void onSnapStart(int startOffset, int targetOffset);
+
+    /**
+     * Called once the content came to rest, or a new touch interrupted the animation.
+     */
+    void onGestureMetrics(SnapMetrics metrics);
+}
@@ -0,0 +1,138 @@
+package com.santhosh.snapscrollview;
+
+import android.view.Choreographer;
+
+/**
+ * Collects {@link SnapMetrics} for the gestures of a snap view. Frames are counted from
+ * Choreographer callbacks that are only posted while a released gesture is settling, and
+ * nothing is done at all while no listener is set.
+ */
+final class SnapMetricsTracker implements Choreographer.FrameCallback {
+
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_DRAGGING = 1;
+    private static final int STATE_SETTLING = 2;
+
+    private final FrameScheduler mFrames = new FrameScheduler(this);
+    private final long mFrameIntervalNanos;
+    private final SnapMetrics mMetrics = new SnapMetrics();
+    private SnapMetricsListener mListener;
+
+    private int mState = STATE_IDLE;
+    private long mReleaseNanos;
+    private long mLastFrameNanos;
+
+    SnapMetricsTracker(long frameIntervalNanos) {
+        mFrameIntervalNanos = frameIntervalNanos;
+    }
+
+    void setListener(SnapMetricsListener listener) {
+        if (listener == null) {
+            cancel();
+        }
+        mListener = listener;
+    }
+
+    SnapMetricsListener getListener() {
+        return mListener;
+    }
+
+    boolean isEnabled() {
+        return mListener != null;
+    }
+
+    void onDragStart(int offset) {
+        if (mListener == null || mState == STATE_DRAGGING) {
+            return;
+        }
+        mState = STATE_DRAGGING;
+        mListener.onDragStart(offset);
+    }
+
+    /**
+     * Starts measuring a gesture released while page was the current page.
+     */
+    void onRelease(int page) {
+        if (mListener == null) {
+            return;
+        }
+        mFrames.remove();
+        mMetrics.reset();
+        mMetrics.mStartPage = page;
+        mMetrics.mEndPage = page;
+        mState = STATE_SETTLING;
+        mReleaseNanos = System.nanoTime();
+        mLastFrameNanos = 0;
+        mFrames.post();
+    }
+
+    void onFlingPredicted(int startOffset, int predictedOffset) {
+        if (mListener == null || mState != STATE_SETTLING) {
+            return;
+        }
+        mMetrics.mPredictedOffset = predictedOffset;
+        mListener.onFlingPredicted(startOffset, predictedOffset);
+    }
+
+    void onSnapStart(int startOffset, int targetOffset) {
+        if (mListener == null || mState != STATE_SETTLING) {
+            return;
+        }
+        mListener.onSnapStart(startOffset, targetOffset);
+    }
+
+    void onPageChanged(int page) {
+        if (mListener == null || mState != STATE_SETTLING || page == mMetrics.mEndPage) {
+            return;
+        }
+        if (mMetrics.mPageChangeLatencyNanos < 0) {
+            mMetrics.mPageChangeLatencyNanos = System.nanoTime() - mReleaseNanos;
+        }
+        mMetrics.mEndPage = page;
+    }
+
+    /**
+     * Ends and reports the gesture being measured.
+     *
+     * @param interrupted true when a new touch stopped the animation
+     */
+    void onSettled(int restingOffset, boolean interrupted) {
+        if (mListener == null || mState != STATE_SETTLING) {
+            mState = STATE_IDLE;
+            return;
+        }
+        mFrames.remove();
+        mState = STATE_IDLE;
+        mMetrics.mSettleNanos = System.nanoTime() - mReleaseNanos;
+        mMetrics.mRestingOffset = restingOffset;
+        mMetrics.mInterrupted = interrupted;
+        mListener.onGestureMetrics(mMetrics);
+    }
+
+    /**
+     * Drops the gesture being measured without reporting it.
+     */
+    void cancel() {
+        mFrames.remove();
+        mState = STATE_IDLE;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (mState != STATE_SETTLING) {
+            return;
+        }
+        mMetrics.mFramesRendered++;
+        if (mLastFrameNanos != 0) {
+            long interval = frameTimeNanos - mLastFrameNanos;
+            mMetrics.mMaxFrameNanos = Math.max(mMetrics.mMaxFrameNanos, interval);
+            // a frame counts as dropped once the interval exceeds it by half a frame
+            int missed = (int) ((interval + mFrameIntervalNanos / 2) / mFrameIntervalNanos) - 1;
+            if (missed > 0) {
+                mMetrics.mFramesDropped += missed;
+            }
+        }
+        mLastFrameNanos = frameTimeNanos;
+        mFrames.post();
+    }
+}
@@ -0,0 +1,96 @@
+package com.santhosh.snapscrollview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares {@link FlingPhysics} with the closed form the views computed on every release.
+ */
+public class FlingPhysicsTest {
+
+    private static final float FRICTION = 0.015f;
+    private static final float[] DENSITIES = {1.0f, 1.5f, 2.0f, 3.0f, 4.0f};
+
+    @Test
+    public void splineFlingDistance_matchesClosedForm() throws Exception {
+        for (float density : DENSITIES) {
+            FlingPhysics physics = new FlingPhysics(density, FRICTION);
+            for (int velocity = 0; velocity <= 40000; velocity += 37) {
+                double expected = closedFormDistance(density, velocity);
+                double actual = physics.getSplineFlingDistance(velocity);
+                assertEquals("density " + density + " velocity " + velocity, expected, actual, Math.max(1.0, expected * 0.005));
+                assertEquals(actual, physics.getSplineFlingDistance(-velocity), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void splineFlingDuration_matchesClosedForm() throws Exception {
+        for (float density : DENSITIES) {
+            FlingPhysics physics = new FlingPhysics(density, FRICTION);
+            for (int velocity = 50; velocity <= 40000; velocity += 37) {
+                assertEquals(closedFormDuration(density, velocity), physics.getSplineFlingDuration(velocity), 1);
+            }
+        }
+    }
+
+    @Test
+    public void finalOffset_isPinnedAndFollowsVelocitySign() throws Exception {
+        FlingPhysics physics = new FlingPhysics(2.0f, FRICTION);
+        int distance = (int) Math.round(closedFormDistance(2.0f, 3000));
+        assertEquals(1000 + distance, physics.getFinalOffset(1000, 3000, 0, 0, 100000), 2);
+        assertEquals(1000 - distance, physics.getFinalOffset(1000, -3000, 0, 0, 100000), 2);
+        assertEquals(0, physics.getFinalOffset(100, -3000, 0, 0, 100000));
+        assertEquals(1200, physics.getFinalOffset(1000, 3000, 0, 0, 1200));
+        // a running fling in the same direction adds to the velocity, an opposite one does not
+        assertTrue(physics.getFinalOffset(1000, 3000, 2000, 0, 100000) > physics.getFinalOffset(1000, 3000, 0, 0, 100000));
+        assertEquals(physics.getFinalOffset(1000, 3000, 0, 0, 100000), physics.getFinalOffset(1000, 3000, -2000, 0, 100000));
+    }
+
+    @Test
+    public void velocityForDistance_invertsFlingDistance() throws Exception {
+        FlingPhysics physics = new FlingPhysics(2.0f, FRICTION);
+        assertEquals(0f, physics.getVelocityForDistance(0), 0f);
+        for (int velocity = 100; velocity <= 40000; velocity += 333) {
+            double distance = physics.computeSplineFlingDistance(velocity);
+            assertEquals(velocity, physics.getVelocityForDistance(distance), velocity * 0.001);
+        }
+    }
+
+    @Test
+    public void splinePosition_isMonotonicFromZeroToOne() throws Exception {
+        assertEquals(0f, FlingPhysics.getSplinePosition(0f), 0f);
+        assertEquals(1f, FlingPhysics.getSplinePosition(1f), 0f);
+        float last = 0f;
+        for (int i = 1; i <= 1000; i++) {
+            float position = FlingPhysics.getSplinePosition(i / 1000f);
+            assertTrue(position >= last);
+            last = position;
+        }
+    }
+
+    @Test
+    public void get_reusesInstanceForSameDensityAndFriction() throws Exception {
+        FlingPhysics physics = FlingPhysics.get(2.0f, FRICTION);
+        assertSame(physics, FlingPhysics.get(2.0f, FRICTION));
+    }
+
+    private static double closedFormDistance(float density, float velocity) {
+        double physicalCoef = 9.80665f * 39.37 * (density * 160.0f) * 0.84;
+        double splineDeceleration = Math.log(0.35f * Math.abs(velocity) / (FRICTION * physicalCoef));
+        double deceleration = (float) (Math.log(0.78) / Math.log(0.9));
+        double decelMinusOne = deceleration - 1.0;
+        return FRICTION * physicalCoef * Math.exp(deceleration / decelMinusOne * splineDeceleration);
+    }
+
+    private static int closedFormDuration(float density, float velocity) {
+        double physicalCoef = 9.80665f * 39.37 * (density * 160.0f) * 0.84;
+        double splineDeceleration = Math.log(0.35f * Math.abs(velocity) / (FRICTION * physicalCoef));
+        double deceleration = (float) (Math.log(0.78) / Math.log(0.9));
+        final double decelMinusOne = deceleration - 1.0;
+        return (int) (1000.0 * Math.exp(splineDeceleration / decelMinusOne));
+    }
+}
@@ -0,0 +1,42 @@
+package com.santhosh.snapscrollview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SnapAnimatorTest {
+
+    private static final int PAGE = 1000;
+    private static final int MAX = 800;
+
+    @Test
+    public void noDistance_noDuration() throws Exception {
+        assertEquals(0, SnapAnimator.computeSnapDuration(0, 5000, PAGE, MAX));
+    }
+
+    @Test
+    public void atRest_growsWithPagesCrossed() throws Exception {
+        int half = SnapAnimator.computeSnapDuration(PAGE / 2, 0, PAGE, MAX);
+        int one = SnapAnimator.computeSnapDuration(PAGE, 0, PAGE, MAX);
+        int two = SnapAnimator.computeSnapDuration(-2 * PAGE, 0, PAGE, MAX);
+        assertTrue(half < one && one < two);
+        assertEquals(200, one);
+        assertEquals(300, two);
+    }
+
+    @Test
+    public void fasterVelocity_shorterDuration() throws Exception {
+        int slow = SnapAnimator.computeSnapDuration(PAGE, 8000, PAGE, MAX);
+        int fast = SnapAnimator.computeSnapDuration(PAGE, 20000, PAGE, MAX);
+        assertTrue(fast < slow);
+        assertEquals(500, slow);
+    }
+
+    @Test
+    public void durationIsBounded() throws Exception {
+        assertEquals(MAX, SnapAnimator.computeSnapDuration(100 * PAGE, 0, PAGE, MAX));
+        assertEquals(MAX, SnapAnimator.computeSnapDuration(PAGE, 10, PAGE, MAX));
+        assertEquals(100, SnapAnimator.computeSnapDuration(1, 100000, PAGE, MAX));
+    }
+}
@@ -0,0 +1,114 @@
+package com.santhosh.snapscrollview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite for the per-release and per-frame work of the snap views: fling prediction,
+ * snap decision, snap interpolation and page offset layout, for small and very long page
+ * lists. Run it with {@code ./gradlew :snapscrollview:testDebugUnitTest -Dsnap.benchmark=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SnapBenchmark {
+
+    private static final int VIEWPORT = 1920;
+    private static final int SAMPLES = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int pageCount;
+
+    private final PageOffsetIndex mPages = new PageOffsetIndex();
+    private final SnapAnchors mAnchors = new SnapAnchors();
+    private final SnapDecisionEngine mEngine = new SnapDecisionEngine();
+    private final FlingPhysics mPhysics = new FlingPhysics(SnapSimulator.DENSITY, SnapSimulator.FRICTION);
+    private final SnapInterpolator mInterpolator = SnapInterpolator.forCurve(SnapInterpolator.CURVE_VISCOUS_FLUID);
+    private final ViscousFluidInterpolator mClosedForm = new ViscousFluidInterpolator();
+
+    private final int[] mOffsets = new int[SAMPLES];
+    private final int[] mVelocities = new int[SAMPLES];
+    private final float[] mFractions = new float[SAMPLES];
+    private int mRange;
+    private int mNext;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        mPages.setPageCount(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            mPages.setPageSize(i, 1200 + random.nextInt(1200));
+        }
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_START, 0);
+        mRange = mAnchors.getMaxScroll();
+        for (int i = 0; i < SAMPLES; i++) {
+            mOffsets[i] = random.nextInt(mRange + 1);
+            mVelocities[i] = random.nextInt(2 * SnapSimulator.MAX_VELOCITY) - SnapSimulator.MAX_VELOCITY;
+            mFractions[i] = random.nextFloat();
+        }
+    }
+
+    private int next() {
+        mNext = (mNext + 1) & (SAMPLES - 1);
+        return mNext;
+    }
+
+    @Benchmark
+    public int flingPrediction() {
+        int i = next();
+        return mPhysics.getFinalOffset(mOffsets[i], mVelocities[i], 0, 0, mRange);
+    }
+
+    @Benchmark
+    public int snapDecision() {
+        int i = next();
+        int predicted = mPhysics.getFinalOffset(mOffsets[i], -mVelocities[i], 0, 0, mRange);
+        mEngine.decide(mAnchors, mOffsets[i], predicted, mVelocities[i], SnapSimulator.MIN_VELOCITY);
+        return mEngine.getTargetOffset();
+    }
+
+    @Benchmark
+    public float interpolation() {
+        return mInterpolator.getInterpolation(mFractions[next()]);
+    }
+
+    /**
+     * Baseline for {@link #interpolation()}: the Math.exp based curve the table replaced.
+     */
+    @Benchmark
+    public float interpolationClosedForm() {
+        return mClosedForm.getInterpolation(mFractions[next()]);
+    }
+
+    @Benchmark
+    public int pageLookup() {
+        return mPages.findPageAt(mOffsets[next()]);
+    }
+
+    /**
+     * A page in the middle changes size, as when a page is re-measured, and the offsets
+     * behind it are needed again for the next scroll position.
+     */
+    @Benchmark
+    public int layoutAfterResize() {
+        int i = next();
+        int page = pageCount / 2;
+        mPages.setPageSize(page, 1200 + (i & 1023));
+        return mPages.getPageStart(pageCount - 1) + mPages.findPageAt(mOffsets[i]);
+    }
+}
@@ -0,0 +1,23 @@
+package com.santhosh.snapscrollview;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link SnapBenchmark} as part of the unit tests when the snap.benchmark system
+ * property is set, and is skipped otherwise.
+ */
+public class SnapBenchmarkTest {
+
+    @Test
+    public void runSnapBenchmark() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("snap.benchmark"));
+        // in process, forked JVMs would not see the classpath of the test runner
+        new Runner(new OptionsBuilder()
+                .include(SnapBenchmark.class.getName())
+                .forks(0)
+                .build()).run();
+    }
+}
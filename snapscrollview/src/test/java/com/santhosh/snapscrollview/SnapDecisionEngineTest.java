@@ -0,0 +1,126 @@
+package com.santhosh.snapscrollview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SnapDecisionEngineTest {
+
+    private static final int MIN_VELOCITY = 50;
+    private static final int VIEWPORT = 100;
+
+    private PageOffsetIndex mPages;
+    private SnapAnchors mAnchors;
+    private SnapDecisionEngine mEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        // pages of 100, 50, 200, 100 and 100 -> starts 0, 100, 150, 350, 450, total 550
+        mPages = new PageOffsetIndex();
+        mPages.setPageCount(5);
+        int[] sizes = {100, 50, 200, 100, 100};
+        for (int i = 0; i < sizes.length; i++) {
+            mPages.setPageSize(i, sizes[i]);
+        }
+        mAnchors = new SnapAnchors();
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_START, 0);
+        mEngine = new SnapDecisionEngine();
+    }
+
+    @Test
+    public void slowRelease_flings() throws Exception {
+        assertEquals(SnapDecisionEngine.DECISION_FLING, mEngine.decide(mAnchors, 120, 130, -MIN_VELOCITY, MIN_VELOCITY));
+        assertEquals(130, mEngine.getTargetOffset());
+        assertEquals(1, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void flingTowardsEnd_snapsToEndOfPredictedPage() throws Exception {
+        assertEquals(SnapDecisionEngine.DECISION_SNAP, mEngine.decide(mAnchors, 120, 200, -1000, MIN_VELOCITY));
+        assertEquals(350, mEngine.getTargetOffset());
+        assertEquals(3, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void flingTowardsStart_snapsToStartOfCurrentPage() throws Exception {
+        assertEquals(SnapDecisionEngine.DECISION_SNAP, mEngine.decide(mAnchors, 300, 200, 1000, MIN_VELOCITY));
+        assertEquals(150, mEngine.getTargetOffset());
+        assertEquals(2, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void flingPastStart_snapsToStart() throws Exception {
+        assertEquals(SnapDecisionEngine.DECISION_START, mEngine.decide(mAnchors, 300, 0, 5000, MIN_VELOCITY));
+        assertEquals(0, mEngine.getTargetOffset());
+        assertEquals(0, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void flingIntoLastViewport_snapsToEnd() throws Exception {
+        assertEquals(SnapDecisionEngine.DECISION_END, mEngine.decide(mAnchors, 300, 450, -5000, MIN_VELOCITY));
+        assertEquals(450, mEngine.getTargetOffset());
+        assertEquals(4, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void emptyPages_flings() throws Exception {
+        mPages.setPageCount(0);
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_START, 0);
+        assertEquals(SnapDecisionEngine.DECISION_FLING, mEngine.decide(mAnchors, 0, 0, -5000, MIN_VELOCITY));
+    }
+
+    @Test
+    public void decisions_areDeterministic() throws Exception {
+        for (int scroll = 0; scroll <= 450; scroll += 25) {
+            for (int velocity = -4000; velocity <= 4000; velocity += 500) {
+                int predicted = Math.max(0, Math.min(450, scroll - velocity / 10));
+                int decision = mEngine.decide(mAnchors, scroll, predicted, velocity, MIN_VELOCITY);
+                int target = mEngine.getTargetOffset();
+                int page = mEngine.getTargetPage();
+                assertEquals(decision, mEngine.decide(mAnchors, scroll, predicted, velocity, MIN_VELOCITY));
+                assertEquals(target, mEngine.getTargetOffset());
+                assertEquals(page, mEngine.getTargetPage());
+            }
+        }
+    }
+
+    @Test
+    public void centerAlignment_snapsPageCentreToViewportCentre() throws Exception {
+        // page 2 spans 150..350, its centre 250 lands in the middle of the 100px viewport at 200
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_CENTER, 0);
+        assertEquals(SnapDecisionEngine.DECISION_SNAP, mEngine.decide(mAnchors, 100, 140, -1000, MIN_VELOCITY));
+        assertEquals(200, mEngine.getTargetOffset());
+        assertEquals(2, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void peek_leavesPreviousPageVisible() throws Exception {
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_START, 20);
+        assertEquals(SnapDecisionEngine.DECISION_SNAP, mEngine.decide(mAnchors, 120, 200, -1000, MIN_VELOCITY));
+        assertEquals(330, mEngine.getTargetOffset());
+        assertEquals(3, mEngine.getTargetPage());
+    }
+
+    @Test
+    public void anchors_followResizedAndAddedPages() throws Exception {
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_CENTER, 0);
+        mPages.setPageSize(2, 50);
+        mPages.setPageCount(6);
+        mPages.setPageSize(5, 300);
+        mAnchors.update(mPages, VIEWPORT, SnapAnchors.ALIGN_CENTER, 0);
+
+        PageOffsetIndex pages = new PageOffsetIndex();
+        pages.setPageCount(6);
+        int[] sizes = {100, 50, 50, 100, 100, 300};
+        for (int i = 0; i < sizes.length; i++) {
+            pages.setPageSize(i, sizes[i]);
+        }
+        SnapAnchors expected = new SnapAnchors();
+        expected.update(pages, VIEWPORT, SnapAnchors.ALIGN_CENTER, 0);
+        for (int i = 0; i <= sizes.length; i++) {
+            assertEquals(expected.getAnchor(i), mAnchors.getAnchor(i));
+        }
+        assertEquals(expected.getMaxScroll(), mAnchors.getMaxScroll());
+    }
+}
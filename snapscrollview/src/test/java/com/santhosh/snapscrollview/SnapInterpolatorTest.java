@@ -0,0 +1,40 @@
+package com.santhosh.snapscrollview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the table-driven curves against their closed form. The per-frame cost of both
+ * is compared in {@link SnapBenchmark}.
+ */
+public class SnapInterpolatorTest {
+
+    @Test
+    public void viscousFluid_matchesClosedForm() throws Exception {
+        SnapInterpolator interpolator = SnapInterpolator.forCurve(SnapInterpolator.CURVE_VISCOUS_FLUID);
+        ViscousFluidInterpolator closedForm = new ViscousFluidInterpolator();
+        for (int i = 0; i <= 10000; i++) {
+            float input = i / 10000f;
+            assertEquals(closedForm.getInterpolation(input), interpolator.getInterpolation(input), 1e-4f);
+        }
+    }
+
+    @Test
+    public void curves_startAtZeroAndEndAtOne() throws Exception {
+        for (int curve = SnapInterpolator.CURVE_VISCOUS_FLUID; curve <= SnapInterpolator.CURVE_SPRING; curve++) {
+            SnapInterpolator interpolator = SnapInterpolator.forCurve(curve);
+            assertEquals(0f, interpolator.getInterpolation(0f), 1e-6f);
+            assertEquals(1f, interpolator.getInterpolation(1f), 0f);
+            for (int i = 0; i <= 1000; i++) {
+                float input = i / 1000f;
+                assertEquals(SnapInterpolator.evaluate(curve, input), interpolator.getInterpolation(input), 1e-3f);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void forCurve_rejectsUnknownCurve() throws Exception {
+        SnapInterpolator.forCurve(42);
+    }
+}
@@ -0,0 +1,131 @@
+package com.santhosh.snapscrollview;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks which page gestures land on, replaying synthetic and recorded velocity traces
+ * through {@link SnapSimulator}.
+ */
+public class SnapSimulationTest {
+
+    private static final int PAGE = 1000;
+    private static final int VIEWPORT = 1000;
+
+    @Test
+    public void slowRelease_restsWhereFlingEnds() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(10, PAGE, VIEWPORT);
+        simulator.scrollToPage(4);
+        assertEquals(SnapDecisionEngine.DECISION_FLING, simulator.replay(VelocityTrace.steady(-50, 80)));
+        assertEquals(4, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void forwardSwipes_landOnPageStarts() throws Exception {
+        int[] velocities = {-150, -1000, -3000, -6000};
+        int[] pages = {5, 5, 6, 8};
+        for (int i = 0; i < velocities.length; i++) {
+            SnapSimulator simulator = SnapSimulator.uniform(10, PAGE, VIEWPORT);
+            simulator.scrollToPage(4);
+            assertEquals(SnapDecisionEngine.DECISION_SNAP, simulator.replay(VelocityTrace.steady(velocities[i], 80)));
+            assertEquals("velocity " + velocities[i], pages[i], simulator.getCurrentPage());
+            assertEquals(pages[i] * PAGE, simulator.getScrollOffset());
+        }
+    }
+
+    @Test
+    public void fasterSwipes_neverLandCloser() throws Exception {
+        int lastPage = 0;
+        for (int velocity = 200; velocity <= SnapSimulator.MAX_VELOCITY; velocity += 200) {
+            SnapSimulator simulator = SnapSimulator.uniform(1000, PAGE, VIEWPORT);
+            simulator.scrollToPage(500);
+            simulator.replay(VelocityTrace.steady(-velocity, 80));
+            assertTrue("velocity " + velocity, simulator.getCurrentPage() >= lastPage);
+            lastPage = simulator.getCurrentPage();
+        }
+    }
+
+    @Test
+    public void backwardSwipe_goesBackOnePage() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(10, PAGE, VIEWPORT);
+        simulator.scrollToPage(4);
+        simulator.replay(VelocityTrace.steady(3000, 80));
+        assertEquals(3, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void flingPastLastPage_endsAtLastPage() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(10, PAGE, VIEWPORT);
+        simulator.scrollToPage(4);
+        assertEquals(SnapDecisionEngine.DECISION_END, simulator.replay(VelocityTrace.steady(-12000, 80)));
+        assertEquals(9, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void recordedSwipeUp_skipsOnePage() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(10, PAGE, VIEWPORT);
+        simulator.scrollToPage(3);
+        simulator.replay(readTrace("swipe_up.csv"));
+        assertEquals(5, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void recordedFlickBack_returnsOnePage() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(10, PAGE, VIEWPORT);
+        simulator.scrollToPage(3);
+        simulator.replay(readTrace("flick_back.csv"));
+        assertEquals(2, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void hardFlings_stopAtMaxPagesPerFling() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(20, PAGE, VIEWPORT);
+        simulator.getEngine().setMaxPagesPerFling(2);
+        simulator.scrollToPage(10);
+        simulator.replay(VelocityTrace.steady(-12000, 80));
+        assertEquals(12, simulator.getCurrentPage());
+        simulator.replay(VelocityTrace.steady(12000, 80));
+        assertEquals(10, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void pageGroups_landOnFirstPageOfGroup() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(12, PAGE, VIEWPORT);
+        simulator.getEngine().setGroupSize(3);
+        simulator.scrollToPage(3);
+        simulator.replay(VelocityTrace.steady(-3000, 80));
+        assertEquals(6, simulator.getCurrentPage());
+        assertEquals(6 * PAGE, simulator.getScrollOffset());
+        simulator.replay(VelocityTrace.steady(3000, 80));
+        assertEquals(3, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void pageGroups_limitCountsWholeGroups() throws Exception {
+        SnapSimulator simulator = SnapSimulator.uniform(30, PAGE, VIEWPORT);
+        simulator.getEngine().setGroupSize(3);
+        simulator.getEngine().setMaxPagesPerFling(4);
+        simulator.scrollToPage(9);
+        simulator.replay(VelocityTrace.steady(-12000, 80));
+        assertEquals(12, simulator.getCurrentPage());
+    }
+
+    @Test
+    public void centredVariablePages_snapToPageCentre() throws Exception {
+        // pages start at 0, 400, 1100, 1500 and 2700, page 2 is centred at 1100 + 200 - 500
+        SnapSimulator simulator = new SnapSimulator(new int[]{400, 700, 400, 1200, 400}, VIEWPORT, SnapAnchors.ALIGN_CENTER, 0);
+        simulator.scrollToPage(1);
+        simulator.replay(VelocityTrace.steady(-1500, 64));
+        assertEquals(2, simulator.getCurrentPage());
+        assertEquals(800, simulator.getScrollOffset());
+    }
+
+    private static VelocityTrace readTrace(String name) throws Exception {
+        InputStream in = SnapSimulationTest.class.getResourceAsStream("/traces/" + name);
+        return VelocityTrace.read(in);
+    }
+}
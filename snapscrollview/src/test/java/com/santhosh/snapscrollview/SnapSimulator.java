@@ -0,0 +1,87 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * Headless replay of drag gestures through the release logic of the snap views: the drag
+ * moves the scroll offset, the release velocity is predicted with {@link FlingPhysics},
+ * {@link SnapDecisionEngine} picks the target and the view would animate to the returned
+ * offset. Touch slop and over scrolling are left out.
+ */
+final class SnapSimulator {
+
+    static final float DENSITY = 2.0f;
+    static final float FRICTION = 0.015f;
+    // ViewConfiguration defaults in dp
+    static final int MIN_VELOCITY = (int) (50 * DENSITY);
+    static final int MAX_VELOCITY = (int) (8000 * DENSITY);
+
+    private final PageOffsetIndex mPages = new PageOffsetIndex();
+    private final SnapAnchors mAnchors = new SnapAnchors();
+    private final FlingPhysics mPhysics = new FlingPhysics(DENSITY, FRICTION);
+    private final SnapDecisionEngine mEngine = new SnapDecisionEngine();
+    private int mScrollOffset;
+
+    /**
+     * @param alignment one of the SnapAnchors.ALIGN_ constants
+     * @param peek      pixels left for the neighbouring page with start or end alignment
+     */
+    SnapSimulator(int[] pageSizes, int viewport, int alignment, int peek) {
+        mPages.setPageCount(pageSizes.length);
+        for (int i = 0; i < pageSizes.length; i++) {
+            mPages.setPageSize(i, pageSizes[i]);
+        }
+        mAnchors.update(mPages, viewport, alignment, peek);
+    }
+
+    static SnapSimulator uniform(int count, int pageSize, int viewport) {
+        int[] sizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            sizes[i] = pageSize;
+        }
+        return new SnapSimulator(sizes, viewport, SnapAnchors.ALIGN_START, 0);
+    }
+
+    PageOffsetIndex getPages() {
+        return mPages;
+    }
+
+    int getScrollOffset() {
+        return mScrollOffset;
+    }
+
+    SnapDecisionEngine getEngine() {
+        return mEngine;
+    }
+
+    SnapAnchors getAnchors() {
+        return mAnchors;
+    }
+
+    void scrollToPage(int page) {
+        mScrollOffset = mEngine.getGroupSnapOffset(mAnchors, page);
+    }
+
+    /**
+     * @return the page whose snap anchor is closest, as reported by getCurrentPage().
+     */
+    int getCurrentPage() {
+        return mAnchors.findClosestAnchor(mScrollOffset);
+    }
+
+    /**
+     * Drags along the trace, releases and moves to where the animation comes to rest.
+     *
+     * @return the decision taken on release.
+     */
+    int replay(VelocityTrace trace) {
+        mScrollOffset -= Math.round(trace.getDisplacement());
+        int velocity = (int) trace.computeVelocity(MAX_VELOCITY);
+        int min = mAnchors.getMinScroll();
+        int max = mAnchors.getMaxScroll();
+        int predicted = mPhysics.getFinalOffset(mScrollOffset, -velocity, 0, min, max);
+        int decision = mEngine.decide(mAnchors, mScrollOffset, predicted, velocity, MIN_VELOCITY);
+        mScrollOffset = decision == SnapDecisionEngine.DECISION_FLING
+                ? mPhysics.getFinalOffset(mScrollOffset, -velocity, 0, min, max)
+                : mEngine.getTargetOffset();
+        return decision;
+    }
+}
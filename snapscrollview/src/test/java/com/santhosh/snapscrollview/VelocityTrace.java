@@ -0,0 +1,116 @@
+package com.santhosh.snapscrollview;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Touch positions along the scroll axis over time, either recorded from MotionEvents or
+ * generated. The release velocity is a least squares fit over the last 100ms of samples,
+ * close to what VelocityTracker reports for a steady drag.
+ */
+final class VelocityTrace {
+
+    private static final int HORIZON_MS = 100;
+    private static final int MAX_SAMPLES = 20;
+
+    private long[] mTimes = new long[16];
+    private float[] mPositions = new float[16];
+    private int mCount;
+
+    void addSample(long timeMillis, float position) {
+        if (mCount == mTimes.length) {
+            long[] times = new long[mCount * 2];
+            float[] positions = new float[mCount * 2];
+            System.arraycopy(mTimes, 0, times, 0, mCount);
+            System.arraycopy(mPositions, 0, positions, 0, mCount);
+            mTimes = times;
+            mPositions = positions;
+        }
+        mTimes[mCount] = timeMillis;
+        mPositions[mCount] = position;
+        mCount++;
+    }
+
+    /**
+     * A drag at a steady velocity, sampled once per frame.
+     *
+     * @param velocity   pixels per second, positive when the finger moves towards the end of the axis
+     * @param durationMs length of the drag
+     */
+    static VelocityTrace steady(float velocity, int durationMs) {
+        VelocityTrace trace = new VelocityTrace();
+        for (int t = 0; t <= durationMs; t += 16) {
+            trace.addSample(t, velocity * t / 1000f);
+        }
+        return trace;
+    }
+
+    /**
+     * Reads a recorded trace of "time,position" lines, lines starting with # are skipped.
+     */
+    static VelocityTrace read(InputStream in) throws IOException {
+        VelocityTrace trace = new VelocityTrace();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] values = line.split(",");
+                trace.addSample(Long.parseLong(values[0].trim()), Float.parseFloat(values[1].trim()));
+            }
+        } finally {
+            reader.close();
+        }
+        return trace;
+    }
+
+    /**
+     * @return distance the finger moved from the first to the last sample.
+     */
+    float getDisplacement() {
+        return mCount < 2 ? 0 : mPositions[mCount - 1] - mPositions[0];
+    }
+
+    /**
+     * @return velocity at the last sample in pixels per second, limited to maxVelocity.
+     */
+    float computeVelocity(float maxVelocity) {
+        if (mCount < 2) {
+            return 0;
+        }
+        long last = mTimes[mCount - 1];
+        int first = mCount - 1;
+        while (first > 0 && mCount - first < MAX_SAMPLES && last - mTimes[first - 1] <= HORIZON_MS) {
+            first--;
+        }
+        int n = mCount - first;
+        if (n < 2) {
+            return 0;
+        }
+        double sumT = 0;
+        double sumP = 0;
+        for (int i = first; i < mCount; i++) {
+            sumT += mTimes[i] - last;
+            sumP += mPositions[i];
+        }
+        double meanT = sumT / n;
+        double meanP = sumP / n;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = first; i < mCount; i++) {
+            double t = mTimes[i] - last - meanT;
+            covariance += t * (mPositions[i] - meanP);
+            variance += t * t;
+        }
+        if (variance == 0) {
+            return 0;
+        }
+        float velocity = (float) (covariance / variance * 1000);
+        return Math.max(-maxVelocity, Math.min(velocity, maxVelocity));
+    }
+}
@@ -0,0 +1,32 @@
+package com.santhosh.snapscrollview;
+
+/**
+ * The closed-form, Math.exp based viscous fluid curve the views evaluated every frame
+ * before {@link SnapInterpolator}, kept as the reference for its tests and benchmarks.
+ */
+final class ViscousFluidInterpolator {
+
+    private static final float VISCOUS_FLUID_SCALE = 6.0f;
+    private static final float VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+    private static final float VISCOUS_FLUID_OFFSET = 1.0f - VISCOUS_FLUID_NORMALIZE * viscousFluid(1.0f);
+
+    private static float viscousFluid(float x) {
+        x *= VISCOUS_FLUID_SCALE;
+        if (x < 1.0f) {
+            x -= (1.0f - (float) Math.exp(-x));
+        } else {
+            float start = 0.36787944117f;   // 1/e == exp(-1)
+            x = 1.0f - (float) Math.exp(1.0f - x);
+            x = start + x * (1.0f - start);
+        }
+        return x;
+    }
+
+    float getInterpolation(float input) {
+        final float interpolated = VISCOUS_FLUID_NORMALIZE * viscousFluid(input);
+        if (interpolated > 0) {
+            return interpolated + VISCOUS_FLUID_OFFSET;
+        }
+        return interpolated;
+    }
+}